@@ -0,0 +1,64 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.DigitalProduct;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cart line maintenance and subtotal cost at varying cart sizes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int cartSize;
+
+    private Cart cart;
+    private Product extra;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (int i = 0; i < cartSize; i++) {
+            cart.addItem(new DigitalProduct("Product " + i, Money.of(1 + i % 100), 1_000), 1 + i % 5);
+        }
+        extra = new DigitalProduct("Extra", Money.of(10), 1_000);
+    }
+
+    @Benchmark
+    public Cart addThenRemoveItem() {
+        cart.addItem(extra, 1);
+        cart.removeItem(extra);
+        return cart;
+    }
+
+    @Benchmark
+    public Cart updateQuantity() {
+        cart.addItem(extra, 1);
+        cart.updateQuantity(extra, 2);
+        cart.removeItem(extra);
+        return cart;
+    }
+
+    @Benchmark
+    public long subtotal() {
+        return cart.getSubtotal();
+    }
+}
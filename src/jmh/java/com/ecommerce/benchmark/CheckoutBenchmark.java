@@ -0,0 +1,94 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.exception.CheckoutException;
+import com.ecommerce.inventory.ReservationManager;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.DigitalProduct;
+import com.ecommerce.model.ElectronicProduct;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.PerishableProduct;
+import com.ecommerce.model.Product;
+import com.ecommerce.output.OutputSink;
+import com.ecommerce.service.CheckoutService;
+import com.ecommerce.service.ShippingService;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end checkout, single-threaded and with threads contending on the same products
+ * Output is discarded so the numbers reflect checkout itself, not console I/O
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+    private static final int UNLIMITED_STOCK = Integer.MAX_VALUE / 2;
+
+    /**
+     * Products and service shared by every benchmark thread, so their stock counters contend
+     */
+    @State(Scope.Benchmark)
+    public static class Shop {
+        CheckoutService checkoutService;
+        Product cheese;
+        Product tv;
+        Product scratchCard;
+
+        @Setup
+        public void setUp() {
+            OutputSink discard = document -> { };
+            checkoutService = new CheckoutService(new ShippingService(discard), new ReservationManager(), discard);
+            cheese = new PerishableProduct("Cheese", Money.of(100), UNLIMITED_STOCK, LocalDate.now().plusDays(7), 0.2);
+            tv = new ElectronicProduct("TV", Money.of(500), UNLIMITED_STOCK, 15.0);
+            scratchCard = new DigitalProduct("Mobile scratch card", Money.of(50), UNLIMITED_STOCK);
+        }
+    }
+
+    /**
+     * Each thread pays from its own account so only product stock is shared
+     */
+    @State(Scope.Thread)
+    public static class Shopper {
+        Customer customer;
+
+        @Setup
+        public void setUp() {
+            customer = new Customer("Shopper", Long.MAX_VALUE / 2);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Cart checkoutSingleThread(Shop shop, Shopper shopper) throws CheckoutException {
+        return checkout(shop, shopper);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cart checkoutContended(Shop shop, Shopper shopper) throws CheckoutException {
+        return checkout(shop, shopper);
+    }
+
+    private Cart checkout(Shop shop, Shopper shopper) throws CheckoutException {
+        Cart cart = new Cart();
+        cart.addItem(shop.cheese, 2);
+        cart.addItem(shop.tv, 1);
+        cart.addItem(shop.scratchCard, 1);
+        shop.checkoutService.checkout(shopper.customer, cart);
+        return cart;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.model.ElectronicProduct;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.PerishableProduct;
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.service.ShippingService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shipping cost for carts with large unit quantities of a few SKUs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShippingBenchmark {
+    @Param({"1", "100", "10000"})
+    private int quantity;
+
+    private ShippingService shippingService;
+    private List<ShipmentLine> lines;
+
+    @Setup
+    public void setUp() {
+        shippingService = new ShippingService(document -> { });
+        lines = List.of(
+            new ShipmentLine(new ElectronicProduct("TV", Money.of(500), quantity, 15.0), quantity),
+            new ShipmentLine(new PerishableProduct("Cheese", Money.of(100), quantity,
+                                                   LocalDate.now().plusDays(7), 0.2), quantity));
+    }
+
+    @Benchmark
+    public long calculateShippingCost() throws ShippingUnavailableException {
+        return shippingService.calculateShippingCost(lines);
+    }
+}
@@ -17,19 +17,19 @@ public class Main {
 
         // Create products
         PerishableProduct cheese = new PerishableProduct(
-            "Cheese", 100, 10, LocalDate.now().plusDays(7), 0.2);
+            "Cheese", Money.of(100), 10, LocalDate.now().plusDays(7), 0.2);
         
         PerishableProduct biscuits = new PerishableProduct(
-            "Biscuits", 150, 5, LocalDate.now().plusDays(30), 0.7);
+            "Biscuits", Money.of(150), 5, LocalDate.now().plusDays(30), 0.7);
         
         ElectronicProduct tv = new ElectronicProduct(
-            "TV", 500, 3, 15.0);
+            "TV", Money.of(500), 3, 15.0);
         
         DigitalProduct scratchCard = new DigitalProduct(
-            "Mobile scratch card", 50, 100);
+            "Mobile scratch card", Money.of(50), 100);
         
         // Create customer
-        Customer customer = new Customer("John Doe", 1000.0);
+        Customer customer = new Customer("John Doe", Money.of(1000));
 
         System.out.println("=== E-COMMERCE SYSTEM DEMO ===\n");
         
@@ -79,7 +79,7 @@ public class Main {
             
             System.out.println("Cart contents:");
             cart.getItems().forEach(item -> 
-                System.out.println("- " + item.toString() + " @ " + item.getProduct().getPrice()));
+                System.out.println("- " + item.toString() + " @ " + Money.format(item.getProduct().getPrice())));
             
             System.out.println("\nCustomer before checkout: " + customer);
             
@@ -109,7 +109,7 @@ public class Main {
             cart.addItem(tv, 2); // 2 TVs = 1000, customer only has remaining balance
             
             System.out.println("Attempting to buy 2 TVs (1000 total)");
-            System.out.println("Customer balance: " + customer.getBalance());
+            System.out.println("Customer balance: " + Money.formatFixed(customer.getBalance()));
             
             checkoutService.checkout(customer, cart);
         } catch (CheckoutException e) {
@@ -133,13 +133,14 @@ public class Main {
         try {
             // Create expired product
             PerishableProduct expiredProduct = new PerishableProduct(
-                "Expired Milk", 50, 5, LocalDate.now().minusDays(1), 1.0);
+                "Expired Milk", Money.of(50), 5, LocalDate.now().minusDays(1), 1.0);
             
             Cart cart = new Cart();
             cart.addItem(expiredProduct, 1);
             
             checkoutService.checkout(customer, cart);
-        } catch (CheckoutException e) {
+        } catch (IllegalArgumentException | CheckoutException e) {
+            // Expired products are now rejected as soon as they are added to the cart
             System.out.println("Expected error caught: " + e.getMessage());
         }
     }
@@ -0,0 +1,330 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.inventory.StockListener;
+import com.ecommerce.model.Expirable;
+import com.ecommerce.model.PriceList;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Shippable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-optimised search index over a fixed set of products
+ * Each product gets an ordinal; names, prices, weights and expiry dates are kept as
+ * sorted primitive arrays with the matching ordinals, so a prefix or range filter is
+ * a binary search plus a scan that sets bits. Type and in-stock are bitmaps, and a
+ * query is the intersection of its filters' bitmaps. In-stock bits follow every stock
+ * change through a StockListener added to each indexed product; several indexes can
+ * follow the same products. Prices come from one PriceList version, so rebuild the
+ * index when a new version is published.
+ */
+public class CatalogIndex implements StockListener {
+    private final Product[] products;
+    private final Map<Product, Integer> ordinals;
+    private final long priceVersion;
+
+    private final String[] sortedNames;
+    private final int[] nameOrder;
+    private final long[] sortedPrices;
+    private final int[] priceOrder;
+    private final double[] sortedWeights;
+    private final int[] weightOrder;
+    private final long[] sortedExpiryDays;
+    private final int[] expiryOrder;
+
+    private final BitSet[] typeBits;
+    private final AtomicLongArray inStockWords;
+
+    /**
+     * Indexes the products at their list prices.
+     */
+    public CatalogIndex(Collection<? extends Product> products) {
+        this(products, PriceList.listPrices());
+    }
+
+    /**
+     * Indexes the products at the prices of the given version, as checkout would charge them.
+     */
+    public CatalogIndex(Collection<? extends Product> products, PriceList prices) {
+        this.products = products.toArray(new Product[0]);
+        this.priceVersion = prices.getVersion();
+        int size = this.products.length;
+        this.ordinals = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            if (ordinals.put(this.products[i], i) != null) {
+                throw new IllegalArgumentException("Product " + this.products[i].getName() + " is listed twice");
+            }
+        }
+
+        String[] lowerNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            lowerNames[i] = this.products[i].getName().toLowerCase(Locale.ROOT);
+        }
+        Integer[] byName = ordinalsSortedBy(size, Comparator.comparing(i -> lowerNames[i]));
+        this.sortedNames = new String[size];
+        this.nameOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            nameOrder[i] = byName[i];
+            sortedNames[i] = lowerNames[byName[i]];
+        }
+
+        long[] unitPrices = new long[size];
+        for (int i = 0; i < size; i++) {
+            unitPrices[i] = prices.priceOf(this.products[i]);
+        }
+        Integer[] byPrice = ordinalsSortedBy(size, Comparator.comparingLong(i -> unitPrices[i]));
+        this.sortedPrices = new long[size];
+        this.priceOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            priceOrder[i] = byPrice[i];
+            sortedPrices[i] = unitPrices[byPrice[i]];
+        }
+
+        List<Integer> shippable = new ArrayList<>();
+        List<Integer> expirable = new ArrayList<>();
+        this.typeBits = new BitSet[ProductType.values().length];
+        for (int i = 0; i < typeBits.length; i++) {
+            typeBits[i] = new BitSet(size);
+        }
+        for (int i = 0; i < size; i++) {
+            Product product = this.products[i];
+            typeBits[ProductType.of(product).ordinal()].set(i);
+            if (product instanceof Shippable) {
+                shippable.add(i);
+            }
+            if (product instanceof Expirable) {
+                expirable.add(i);
+            }
+        }
+
+        shippable.sort(Comparator.comparingDouble(i -> ((Shippable) this.products[i]).getWeight()));
+        this.sortedWeights = new double[shippable.size()];
+        this.weightOrder = new int[shippable.size()];
+        for (int i = 0; i < sortedWeights.length; i++) {
+            weightOrder[i] = shippable.get(i);
+            sortedWeights[i] = ((Shippable) this.products[weightOrder[i]]).getWeight();
+        }
+
+        expirable.sort(Comparator.comparingLong(i -> expiryDay(this.products[i])));
+        this.sortedExpiryDays = new long[expirable.size()];
+        this.expiryOrder = new int[expirable.size()];
+        for (int i = 0; i < sortedExpiryDays.length; i++) {
+            expiryOrder[i] = expirable.get(i);
+            sortedExpiryDays[i] = expiryDay(this.products[expiryOrder[i]]);
+        }
+
+        this.inStockWords = new AtomicLongArray((size + 63) >>> 6);
+        for (int i = 0; i < size; i++) {
+            this.products[i].addStockListener(this);
+            refreshStock(i);
+        }
+    }
+
+    /**
+     * @return a query matching every indexed product until filters are added
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    /**
+     * @return version of the PriceList the price filter uses
+     */
+    public long getPriceVersion() {
+        return priceVersion;
+    }
+
+    /**
+     * Stops following stock changes, so a replaced index can be garbage collected.
+     */
+    public void detach() {
+        for (Product product : products) {
+            product.removeStockListener(this);
+        }
+    }
+
+    @Override
+    public void stockChanged(Product product) {
+        Integer ordinal = ordinals.get(product);
+        if (ordinal != null) {
+            refreshStock(ordinal);
+        }
+    }
+
+    /**
+     * Filters over the index; each call narrows the result to products also matching it
+     */
+    public class Query {
+        private final BitSet matches;
+
+        private Query() {
+            this.matches = new BitSet(products.length);
+            matches.set(0, products.length);
+        }
+
+        /**
+         * Keeps products whose name starts with the prefix, ignoring case.
+         */
+        public Query namePrefix(String prefix) {
+            String key = prefix.toLowerCase(Locale.ROOT);
+            BitSet hits = new BitSet(products.length);
+            for (int i = lowerBound(sortedNames, key); i < sortedNames.length && sortedNames[i].startsWith(key); i++) {
+                hits.set(nameOrder[i]);
+            }
+            matches.and(hits);
+            return this;
+        }
+
+        /**
+         * Keeps products priced within [min, max] minor units under the index's PriceList.
+         */
+        public Query priceBetween(long min, long max) {
+            BitSet hits = new BitSet(products.length);
+            for (int i = lowerBound(sortedPrices, min); i < sortedPrices.length && sortedPrices[i] <= max; i++) {
+                hits.set(priceOrder[i]);
+            }
+            matches.and(hits);
+            return this;
+        }
+
+        /**
+         * Keeps shippable products weighing within [min, max] kg.
+         */
+        public Query weightBetween(double min, double max) {
+            BitSet hits = new BitSet(products.length);
+            for (int i = lowerBound(sortedWeights, min); i < sortedWeights.length && sortedWeights[i] <= max; i++) {
+                hits.set(weightOrder[i]);
+            }
+            matches.and(hits);
+            return this;
+        }
+
+        /**
+         * Keeps expirable products whose expiry date falls within [from, to].
+         */
+        public Query expiringBetween(LocalDate from, LocalDate to) {
+            long last = to.toEpochDay();
+            BitSet hits = new BitSet(products.length);
+            for (int i = lowerBound(sortedExpiryDays, from.toEpochDay());
+                 i < sortedExpiryDays.length && sortedExpiryDays[i] <= last; i++) {
+                hits.set(expiryOrder[i]);
+            }
+            matches.and(hits);
+            return this;
+        }
+
+        public Query ofType(ProductType type) {
+            matches.and(typeBits[type.ordinal()]);
+            return this;
+        }
+
+        public Query inStock() {
+            long[] words = new long[inStockWords.length()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = inStockWords.get(i);
+            }
+            matches.and(BitSet.valueOf(words));
+            return this;
+        }
+
+        public int count() {
+            return matches.cardinality();
+        }
+
+        /**
+         * @return matching products in index order
+         */
+        public List<Product> list() {
+            List<Product> result = new ArrayList<>(matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                result.add(products[i]);
+            }
+            return result;
+        }
+    }
+
+    private void refreshStock(int ordinal) {
+        Product product = products[ordinal];
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        boolean inStock;
+        do {
+            inStock = product.getAvailableQuantity() > 0;
+            long current;
+            long updated;
+            do {
+                current = inStockWords.get(word);
+                updated = inStock ? current | bit : current & ~bit;
+            } while (current != updated && !inStockWords.compareAndSet(word, current, updated));
+            // A concurrent change may have written its bit before ours; re-read so the last writer wins correctly
+        } while (inStock != product.getAvailableQuantity() > 0);
+    }
+
+    private static Integer[] ordinalsSortedBy(int size, Comparator<Integer> order) {
+        Integer[] ordinals = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = i;
+        }
+        Arrays.sort(ordinals, order);
+        return ordinals;
+    }
+
+    private static long expiryDay(Product product) {
+        return ((Expirable) product).getExpiryDate().toEpochDay();
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
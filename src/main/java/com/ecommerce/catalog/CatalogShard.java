@@ -0,0 +1,64 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Product;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One partition of the catalog: owns its products and performs their stock operations
+ */
+public class CatalogShard {
+    private final int id;
+    private final Map<Long, Product> products;
+
+    public CatalogShard(int id) {
+        this.id = id;
+        this.products = new ConcurrentHashMap<>();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void register(Product product) {
+        if (products.putIfAbsent(product.getSku(), product) != null) {
+            throw new IllegalArgumentException("SKU " + product.getSku() + " is already registered");
+        }
+    }
+
+    /**
+     * @return the product, or null if this shard does not own the SKU
+     */
+    public Product get(long sku) {
+        return products.get(sku);
+    }
+
+    public boolean tryReserve(long sku, int quantity) {
+        return require(sku).tryReduceQuantity(quantity);
+    }
+
+    public void release(long sku, int quantity) {
+        require(sku).restoreQuantity(quantity);
+    }
+
+    public int available(long sku) {
+        return require(sku).getAvailableQuantity();
+    }
+
+    public Collection<Product> getProducts() {
+        return products.values();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private Product require(long sku) {
+        Product product = products.get(sku);
+        if (product == null) {
+            throw new IllegalArgumentException("SKU " + sku + " is not owned by shard " + id);
+        }
+        return product;
+    }
+}
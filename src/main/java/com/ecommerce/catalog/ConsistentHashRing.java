@@ -0,0 +1,75 @@
+package com.ecommerce.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Consistent-hash ring mapping SKUs to shard ids
+ * Each shard owns many virtual nodes so load stays even, and adding a shard moves
+ * only about 1/n of the SKUs; lookups are a binary search over a primitive array
+ */
+public class ConsistentHashRing {
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final long[] points;
+    private final int[] owners;
+    private final int shardCount;
+
+    public ConsistentHashRing(int shardCount) {
+        this(shardCount, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int shardCount, int virtualNodesPerShard) {
+        if (shardCount <= 0 || virtualNodesPerShard <= 0) {
+            throw new IllegalArgumentException("Shard and virtual node counts must be positive");
+        }
+        this.shardCount = shardCount;
+
+        int size = shardCount * virtualNodesPerShard;
+        long[] hashes = new long[size];
+        for (int shard = 0, n = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodesPerShard; node++, n++) {
+                hashes[n] = mix(((long) shard << 32) | node);
+            }
+        }
+
+        // Sort hashes together with their owners by sorting indices on the hash value
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = order[i] / virtualNodesPerShard;
+        }
+    }
+
+    public int shardFor(long sku) {
+        long hash = mix(sku);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3; spreads sequential SKUs around the ring.
+     */
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.DayClock;
+import com.ecommerce.model.Expirable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Day-bucketed index over expirable products
+ * Sweeping and "expiring soon" queries touch only the affected day buckets,
+ * never the whole catalog
+ */
+public class ExpiryIndex {
+    private final ConcurrentSkipListMap<Long, Set<Expirable>> byExpiryDay;
+
+    public ExpiryIndex() {
+        this.byExpiryDay = new ConcurrentSkipListMap<>();
+    }
+
+    public void register(Expirable product) {
+        byExpiryDay.computeIfAbsent(product.getExpiryDate().toEpochDay(),
+                                    day -> ConcurrentHashMap.newKeySet())
+                   .add(product);
+    }
+
+    public void unregister(Expirable product) {
+        Set<Expirable> bucket = byExpiryDay.get(product.getExpiryDate().toEpochDay());
+        if (bucket != null) {
+            bucket.remove(product);
+        }
+    }
+
+    /**
+     * Marks every product whose expiry date has passed as expired and drops it from the index.
+     * Intended to run shortly after midnight, e.g. from a scheduled executor.
+     *
+     * @return number of products marked expired
+     */
+    public int sweep() {
+        NavigableMap<Long, Set<Expirable>> expired = byExpiryDay.headMap(DayClock.todayEpochDay(), false);
+        int count = 0;
+        for (Map.Entry<Long, Set<Expirable>> bucket : expired.entrySet()) {
+            for (Expirable product : bucket.getValue()) {
+                product.markExpired();
+                count++;
+            }
+            byExpiryDay.remove(bucket.getKey(), bucket.getValue());
+        }
+        return count;
+    }
+
+    /**
+     * @return products that are still sellable today but expire within the next {@code days} days
+     */
+    public List<Expirable> expiringWithin(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        long today = DayClock.todayEpochDay();
+        List<Expirable> result = new ArrayList<>();
+        for (Set<Expirable> bucket : byExpiryDay.subMap(today, true, today + days, true).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Set<Expirable> bucket : byExpiryDay.values()) {
+            size += bucket.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Transport to shards living in this JVM; each call is a direct method call
+ */
+public class LocalShardTransport implements ShardTransport {
+    private final CatalogShard[] shards;
+
+    public LocalShardTransport(int shardCount) {
+        this.shards = new CatalogShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new CatalogShard(i);
+        }
+    }
+
+    public CatalogShard getShard(int shardId) {
+        return shards[shardId];
+    }
+
+    @Override
+    public void register(int shardId, Product product) {
+        shards[shardId].register(product);
+    }
+
+    @Override
+    public Product lookup(int shardId, long sku) {
+        return shards[shardId].get(sku);
+    }
+
+    @Override
+    public boolean tryReserve(int shardId, long sku, int quantity) {
+        return shards[shardId].tryReserve(sku, quantity);
+    }
+
+    @Override
+    public void release(int shardId, long sku, int quantity) {
+        shards[shardId].release(sku, quantity);
+    }
+
+    @Override
+    public int available(int shardId, long sku) {
+        return shards[shardId].available(sku);
+    }
+}
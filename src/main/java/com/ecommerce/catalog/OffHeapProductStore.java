@@ -0,0 +1,216 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.inventory.StockListeners;
+import com.ecommerce.model.PriceTable;
+import com.ecommerce.model.Product;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columnar product store kept in direct (off-heap) buffers
+ * Price, stock, weight, expiry and flags are one primitive column each, so a
+ * million-SKU catalog costs a few direct buffers instead of millions of heap objects.
+ * {@link #view(int)} returns a short-lived Product flyweight that reads and
+ * updates the columns in place, so Cart and CheckoutService work unchanged
+ */
+public class OffHeapProductStore {
+    static final int KIND_DIGITAL = 0;
+    static final int KIND_ELECTRONIC = 1;
+    static final int KIND_PERISHABLE = 2;
+
+    private static final int FLAG_EXPIRED = 1;
+    private static final VarHandle INTS =
+        MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int capacity;
+    private final long firstSku;
+    private final String[] names;
+    private final ByteBuffer kinds;
+    private final ByteBuffer prices;
+    private final ByteBuffer stock;
+    private final ByteBuffer weights;
+    private final ByteBuffer expiryDays;
+    private final ByteBuffer flags;
+    private final Map<Integer, StockListeners> listeners;
+    private volatile int size;
+
+    public OffHeapProductStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.firstSku = Product.allocateSkus(capacity);
+        this.names = new String[capacity];
+        this.kinds = column(capacity, Byte.BYTES);
+        this.prices = column(capacity, Long.BYTES);
+        this.stock = column(capacity, Integer.BYTES);
+        this.weights = column(capacity, Double.BYTES);
+        this.expiryDays = column(capacity, Long.BYTES);
+        this.flags = column(capacity, Integer.BYTES);
+        this.listeners = new ConcurrentHashMap<>();
+    }
+
+    public int addDigital(String name, long price, int availableQuantity) {
+        return add(KIND_DIGITAL, name, price, availableQuantity, 0.0, Long.MAX_VALUE);
+    }
+
+    public int addElectronic(String name, long price, int availableQuantity, double weight) {
+        return add(KIND_ELECTRONIC, name, price, availableQuantity, weight, Long.MAX_VALUE);
+    }
+
+    public int addPerishable(String name, long price, int availableQuantity,
+                             LocalDate expiryDate, double weight) {
+        return add(KIND_PERISHABLE, name, price, availableQuantity, weight, expiryDate.toEpochDay());
+    }
+
+    /**
+     * @return a Product (and Shippable / Expirable where applicable) backed by the row
+     */
+    public Product view(int row) {
+        checkRow(row);
+        switch (kinds.get(row)) {
+            case KIND_ELECTRONIC:
+                return new StoredElectronicProduct(this, row);
+            case KIND_PERISHABLE:
+                return new StoredPerishableProduct(this, row);
+            default:
+                return new StoredDigitalProduct(this, row);
+        }
+    }
+
+    /**
+     * @return the view for a SKU issued by this store, or null if the SKU is not in it
+     */
+    public Product viewBySku(long sku) {
+        long row = sku - firstSku;
+        return row >= 0 && row < size ? view((int) row) : null;
+    }
+
+    /**
+     * Listeners live here rather than on the short-lived views, so a listener added
+     * through one view hears about changes made through every other view of the row.
+     * Only rows that ever had a listener take an entry.
+     *
+     * @return the row's listeners, or null if it has none and {@code create} is false
+     */
+    StockListeners stockListeners(int row, boolean create) {
+        return create ? listeners.computeIfAbsent(row, key -> new StockListeners()) : listeners.get(row);
+    }
+
+    public boolean owns(long sku) {
+        long row = sku - firstSku;
+        return row >= 0 && row < size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long skuOf(int row) {
+        return firstSku + row;
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public long price(int row) {
+        return (long) LONGS.getVolatile(prices, row * Long.BYTES);
+    }
+
+    /**
+     * Reprices the row by publishing a new version of the table. The list price column
+     * is fixed once the row is added, so carts priced earlier see the change.
+     */
+    public void setPrice(int row, long price, PriceTable priceTable) {
+        priceTable.setPrice(view(row), price);
+    }
+
+    public int stock(int row) {
+        return (int) INTS.getVolatile(stock, row * Integer.BYTES);
+    }
+
+    public double weight(int row) {
+        return weights.getDouble(row * Double.BYTES);
+    }
+
+    public long expiryEpochDay(int row) {
+        return expiryDays.getLong(row * Long.BYTES);
+    }
+
+    /**
+     * Atomically takes units from the row's stock with a CAS on the off-heap column.
+     * Stock listeners are only told about changes made through a view.
+     */
+    public boolean tryReserve(int row, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        int offset = row * Integer.BYTES;
+        int current;
+        do {
+            current = (int) INTS.getVolatile(stock, offset);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!INTS.compareAndSet(stock, offset, current, current - quantity));
+        return true;
+    }
+
+    public void release(int row, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        INTS.getAndAdd(stock, row * Integer.BYTES, quantity);
+    }
+
+    boolean isMarkedExpired(int row) {
+        return ((int) INTS.getVolatile(flags, row * Integer.BYTES) & FLAG_EXPIRED) != 0;
+    }
+
+    void markExpired(int row) {
+        INTS.getAndBitwiseOr(flags, row * Integer.BYTES, FLAG_EXPIRED);
+    }
+
+    private synchronized int add(int kind, String name, long price, int availableQuantity,
+                                 double weight, long expiryEpochDay) {
+        if (availableQuantity < 0) {
+            throw new IllegalArgumentException("Initial quantity cannot be negative");
+        }
+        int row = size;
+        if (row == capacity) {
+            throw new IllegalStateException("Store is full (" + capacity + " products)");
+        }
+        names[row] = name;
+        kinds.put(row, (byte) kind);
+        prices.putLong(row * Long.BYTES, price);
+        stock.putInt(row * Integer.BYTES, availableQuantity);
+        weights.putDouble(row * Double.BYTES, weight);
+        expiryDays.putLong(row * Long.BYTES, expiryEpochDay);
+        flags.putInt(row * Integer.BYTES, 0);
+        // Volatile write publishes the row to readers that check size first
+        size = row + 1;
+        return row;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No product at row " + row);
+        }
+    }
+
+    private static ByteBuffer column(int capacity, int width) {
+        return ByteBuffer.allocateDirect(capacity * width).order(ByteOrder.nativeOrder());
+    }
+}
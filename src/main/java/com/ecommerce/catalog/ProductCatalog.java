@@ -0,0 +1,63 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.inventory.StockGateway;
+import com.ecommerce.model.Product;
+
+/**
+ * Owns all products by SKU, partitioned across shards by consistent hashing
+ * As a StockGateway it routes each stock operation to the shard owning the SKU,
+ * so inventory throughput grows with the number of shards
+ */
+public class ProductCatalog implements StockGateway {
+    private final ConsistentHashRing ring;
+    private final ShardTransport transport;
+
+    /**
+     * Creates a catalog with the given number of in-process shards.
+     */
+    public ProductCatalog(int shardCount) {
+        this(new ConsistentHashRing(shardCount), new LocalShardTransport(shardCount));
+    }
+
+    public ProductCatalog(ConsistentHashRing ring, ShardTransport transport) {
+        this.ring = ring;
+        this.transport = transport;
+    }
+
+    public void register(Product product) {
+        transport.register(ring.shardFor(product.getSku()), product);
+    }
+
+    /**
+     * @return the product with this SKU, or null if it is not in the catalog
+     */
+    public Product get(long sku) {
+        return transport.lookup(ring.shardFor(sku), sku);
+    }
+
+    public int shardOf(long sku) {
+        return ring.shardFor(sku);
+    }
+
+    public int getShardCount() {
+        return ring.getShardCount();
+    }
+
+    @Override
+    public boolean tryReserve(Product product, int quantity) {
+        long sku = product.getSku();
+        return transport.tryReserve(ring.shardFor(sku), sku, quantity);
+    }
+
+    @Override
+    public void release(Product product, int quantity) {
+        long sku = product.getSku();
+        transport.release(ring.shardFor(sku), sku, quantity);
+    }
+
+    @Override
+    public int available(Product product) {
+        long sku = product.getSku();
+        return transport.available(ring.shardFor(sku), sku);
+    }
+}
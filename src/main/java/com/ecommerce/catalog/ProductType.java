@@ -0,0 +1,22 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Expirable;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Shippable;
+
+/**
+ * Product family used for filtering, derived from what a product can do so that
+ * off-heap views classify the same as the on-heap classes
+ */
+public enum ProductType {
+    DIGITAL,
+    ELECTRONIC,
+    PERISHABLE;
+
+    public static ProductType of(Product product) {
+        if (product instanceof Expirable) {
+            return PERISHABLE;
+        }
+        return product instanceof Shippable ? ELECTRONIC : DIGITAL;
+    }
+}
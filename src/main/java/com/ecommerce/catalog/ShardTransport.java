@@ -0,0 +1,19 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Carries catalog operations to the node hosting a shard
+ * In-process shards use LocalShardTransport; a multi-node deployment plugs in an RPC transport
+ */
+public interface ShardTransport {
+    void register(int shardId, Product product);
+
+    Product lookup(int shardId, long sku);
+
+    boolean tryReserve(int shardId, long sku, int quantity);
+
+    void release(int shardId, long sku, int quantity);
+
+    int available(int shardId, long sku);
+}
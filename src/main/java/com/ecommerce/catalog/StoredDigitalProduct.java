@@ -0,0 +1,15 @@
+package com.ecommerce.catalog;
+
+/**
+ * Off-heap view of a digital product
+ */
+class StoredDigitalProduct extends StoredProduct {
+    StoredDigitalProduct(OffHeapProductStore store, int row) {
+        super(store, row);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (Digital)", super.toString());
+    }
+}
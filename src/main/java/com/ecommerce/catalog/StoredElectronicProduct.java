@@ -0,0 +1,22 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Shippable;
+
+/**
+ * Off-heap view of a shippable, non-expiring product
+ */
+class StoredElectronicProduct extends StoredProduct implements Shippable {
+    StoredElectronicProduct(OffHeapProductStore store, int row) {
+        super(store, row);
+    }
+
+    @Override
+    public double getWeight() {
+        return store.weight(row);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (Weight: %.1fkg)", super.toString(), getWeight());
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.DayClock;
+import com.ecommerce.model.Expirable;
+import com.ecommerce.model.Shippable;
+import java.time.LocalDate;
+
+/**
+ * Off-heap view of a perishable product; expiry is stored as an epoch day
+ */
+class StoredPerishableProduct extends StoredProduct implements Expirable, Shippable {
+    StoredPerishableProduct(OffHeapProductStore store, int row) {
+        super(store, row);
+    }
+
+    @Override
+    public LocalDate getExpiryDate() {
+        return LocalDate.ofEpochDay(store.expiryEpochDay(row));
+    }
+
+    @Override
+    public boolean isExpired() {
+        return store.isMarkedExpired(row) || DayClock.todayEpochDay() > store.expiryEpochDay(row);
+    }
+
+    @Override
+    public void markExpired() {
+        store.markExpired(row);
+    }
+
+    @Override
+    public double getWeight() {
+        return store.weight(row);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (Expires: %s, Weight: %.1fkg)",
+                           super.toString(), getExpiryDate(), getWeight());
+    }
+}
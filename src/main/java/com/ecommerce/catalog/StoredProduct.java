@@ -0,0 +1,73 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.inventory.StockCounter;
+import com.ecommerce.inventory.StockListeners;
+import com.ecommerce.model.Product;
+
+/**
+ * Flyweight Product over one row of an OffHeapProductStore
+ * Holds only the store and row; views of the same row are equal, so carts and
+ * maps treat them as one product, and share the stock listeners the store keeps for the row
+ */
+abstract class StoredProduct extends Product {
+    protected final OffHeapProductStore store;
+    protected final int row;
+
+    StoredProduct(OffHeapProductStore store, int row) {
+        super(store.skuOf(row), store.name(row), 0, new RowStockCounter(store, row));
+        this.store = store;
+        this.row = row;
+    }
+
+    @Override
+    public long getPrice() {
+        return store.price(row);
+    }
+
+    @Override
+    protected StockListeners getStockListeners(boolean create) {
+        return store.stockListeners(row, create);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof StoredProduct)) {
+            return false;
+        }
+        StoredProduct that = (StoredProduct) other;
+        return store == that.store && row == that.row;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sku);
+    }
+
+    /**
+     * Stock counter reading and updating the store's off-heap stock column
+     */
+    private static final class RowStockCounter implements StockCounter {
+        private final OffHeapProductStore store;
+        private final int row;
+
+        private RowStockCounter(OffHeapProductStore store, int row) {
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override
+        public int available() {
+            return store.stock(row);
+        }
+
+        @Override
+        public boolean tryReserve(int quantity) {
+            return store.tryReserve(row, quantity);
+        }
+
+        @Override
+        public void release(int quantity) {
+            store.release(row, quantity);
+        }
+    }
+}
@@ -7,4 +7,17 @@ public class CheckoutException extends Exception {
     public CheckoutException(String message) {
         super(message);
     }
+
+    public CheckoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * For rejections raised at high rates: without a stack trace the exception costs
+     * little more than the object itself. Subclasses may pass a null message and
+     * format it on demand in {@link #getMessage()}.
+     */
+    protected CheckoutException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
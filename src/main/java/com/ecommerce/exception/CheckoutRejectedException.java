@@ -0,0 +1,10 @@
+package com.ecommerce.exception;
+
+/**
+ * Custom exception for checkouts shed by admission control before they ran
+ */
+public class CheckoutRejectedException extends CheckoutException {
+    public CheckoutRejectedException(String message) {
+        super(message);
+    }
+}
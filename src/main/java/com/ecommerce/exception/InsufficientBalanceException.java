@@ -1,10 +1,49 @@
 package com.ecommerce.exception;
 
+import com.ecommerce.model.Money;
+
 /**
  * Custom exception for insufficient balance
  */
 public class InsufficientBalanceException extends CheckoutException {
+    private final long required;
+    private final long available;
+    private final boolean structured;
+
     public InsufficientBalanceException(String message) {
         super(message);
+        this.required = 0;
+        this.available = 0;
+        this.structured = false;
+    }
+
+    /**
+     * Stackless variant; the message is only formatted if it is read.
+     *
+     * @param required  order total in minor units
+     * @param available customer balance in minor units
+     */
+    public InsufficientBalanceException(long required, long available) {
+        super(null, false);
+        this.required = required;
+        this.available = available;
+        this.structured = true;
+    }
+
+    public long getRequired() {
+        return required;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+
+    @Override
+    public String getMessage() {
+        if (!structured) {
+            return super.getMessage();
+        }
+        return String.format("Insufficient balance. Required: %s, Available: %s",
+                             Money.formatFixed(required), Money.formatFixed(available));
     }
 }
@@ -1,10 +1,53 @@
 package com.ecommerce.exception;
 
+import com.ecommerce.model.Product;
+
 /**
  * Custom exception for out of stock products
  */
 public class OutOfStockException extends CheckoutException {
+    private final Product product;
+    private final int available;
+    private final int requested;
+
     public OutOfStockException(String message) {
         super(message);
+        this.product = null;
+        this.available = 0;
+        this.requested = 0;
+    }
+
+    /**
+     * Stackless variant; the message is only formatted if it is read.
+     */
+    public OutOfStockException(Product product, int available, int requested) {
+        super(null, false);
+        this.product = product;
+        this.available = available;
+        this.requested = requested;
+    }
+
+    /**
+     * @return the product that ran short, or null if built from a plain message
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    @Override
+    public String getMessage() {
+        if (product == null) {
+            return super.getMessage();
+        }
+        return String.format("Insufficient stock for %s. Available: %d, Requested: %d",
+                             product.getName(), available, requested);
     }
 }
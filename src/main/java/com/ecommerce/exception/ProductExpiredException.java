@@ -1,10 +1,46 @@
 package com.ecommerce.exception;
 
+import com.ecommerce.model.Product;
+import java.time.LocalDate;
+
 /**
  * Custom exception for expired products
  */
 public class ProductExpiredException extends CheckoutException {
+    private final Product product;
+    private final LocalDate expiryDate;
+
     public ProductExpiredException(String message) {
         super(message);
+        this.product = null;
+        this.expiryDate = null;
+    }
+
+    /**
+     * Stackless variant; the message is only formatted if it is read.
+     */
+    public ProductExpiredException(Product product, LocalDate expiryDate) {
+        super(null, false);
+        this.product = product;
+        this.expiryDate = expiryDate;
+    }
+
+    /**
+     * @return the expired product, or null if built from a plain message
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    @Override
+    public String getMessage() {
+        if (product == null) {
+            return super.getMessage();
+        }
+        return String.format("Product %s has expired on %s", product.getName(), expiryDate);
     }
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.exception;
+
+/**
+ * Custom exception for shipments the rate table cannot price: an unknown zone,
+ * or a weight below the zone's first tier
+ */
+public class ShippingUnavailableException extends CheckoutException {
+    private final int zone;
+    private final double weightKg;
+
+    /**
+     * Stackless variant; the message is only formatted if it is read.
+     */
+    public ShippingUnavailableException(int zone, double weightKg) {
+        super(null, false);
+        this.zone = zone;
+        this.weightKg = weightKg;
+    }
+
+    public int getZone() {
+        return zone;
+    }
+
+    public double getWeightKg() {
+        return weightKg;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("No shipping rate for zone %d at %.3fkg", zone, weightKg);
+    }
+}
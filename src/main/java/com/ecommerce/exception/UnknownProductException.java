@@ -0,0 +1,21 @@
+package com.ecommerce.exception;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Custom exception for products the stock owner does not know, such as a SKU
+ * that was never registered with the catalog
+ */
+public class UnknownProductException extends CheckoutException {
+    private final Product product;
+
+    public UnknownProductException(Product product, Throwable cause) {
+        super(String.format("Product %s (SKU %d) is not in the catalog", product.getName(), product.getSku()),
+              cause);
+        this.product = product;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+}
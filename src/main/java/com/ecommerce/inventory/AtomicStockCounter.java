@@ -0,0 +1,47 @@
+package com.ecommerce.inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free stock counter backed by a CAS loop on a single AtomicInteger
+ * Each product owns its own counter, so contention is striped per SKU
+ */
+public class AtomicStockCounter implements StockCounter {
+    private final AtomicInteger available;
+
+    public AtomicStockCounter(int initialQuantity) {
+        if (initialQuantity < 0) {
+            throw new IllegalArgumentException("Initial quantity cannot be negative");
+        }
+        this.available = new AtomicInteger(initialQuantity);
+    }
+
+    @Override
+    public int available() {
+        return available.get();
+    }
+
+    @Override
+    public boolean tryReserve(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+
+        int current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    @Override
+    public void release(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        available.addAndGet(quantity);
+    }
+}
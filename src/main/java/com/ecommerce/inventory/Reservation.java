@@ -0,0 +1,84 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.wallet.Hold;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the stock and wallet funds taken for one checkout until it is committed or released
+ * State transitions are CAS-guarded, so a reservation is settled exactly once
+ */
+public class Reservation {
+    public enum State {
+        PENDING,
+        COMMITTED,
+        RELEASED
+    }
+
+    private final long token;
+    private final Customer customer;
+    private final List<CartItem> items;
+    private final Hold hold;
+    private final long expiresAtNanos;
+    private final AtomicReference<State> state;
+
+    Reservation(long token, Customer customer, List<CartItem> items,
+                Hold hold, long expiresAtNanos) {
+        this.token = token;
+        this.customer = customer;
+        this.items = items;
+        this.hold = hold;
+        this.expiresAtNanos = expiresAtNanos;
+        this.state = new AtomicReference<>(State.PENDING);
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public List<CartItem> getItems() {
+        return items;
+    }
+
+    public long getAmount() {
+        return hold.getAmount();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos > 0;
+    }
+
+    boolean markCommitted() {
+        if (!state.compareAndSet(State.PENDING, State.COMMITTED)) {
+            return false;
+        }
+        customer.getWallet().capture(hold);
+        return true;
+    }
+
+    /**
+     * Returns the held stock and funds if this reservation is still pending.
+     *
+     * @return true if this call performed the release
+     */
+    boolean releaseHeld(StockGateway stockGateway) {
+        if (!state.compareAndSet(State.PENDING, State.RELEASED)) {
+            return false;
+        }
+        for (CartItem item : items) {
+            stockGateway.release(item.getProduct(), item.getQuantity());
+        }
+        customer.getWallet().release(hold);
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.exception.CheckoutException;
+import com.ecommerce.exception.InsufficientBalanceException;
+import com.ecommerce.exception.OutOfStockException;
+import com.ecommerce.exception.UnknownProductException;
+import com.ecommerce.metrics.CheckoutMetrics;
+import com.ecommerce.metrics.Stage;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.wallet.Hold;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-phase reserve / commit / release protocol over cart stock and a wallet hold
+ * Stock is acquired in SKU order and every step is a per-SKU CAS, so parallel
+ * checkouts never deadlock and never need a global lock
+ */
+public class ReservationManager {
+    private static final long DEFAULT_TTL_SECONDS = 30;
+    private static final Comparator<CartItem> ACQUISITION_ORDER =
+        Comparator.comparingLong(item -> item.getProduct().getSku());
+
+    private final StockGateway stockGateway;
+    private final long ttlNanos;
+    private final AtomicLong tokenSequence;
+    private final Map<Long, Reservation> pending;
+    private volatile CheckoutMetrics metrics = CheckoutMetrics.DISABLED;
+
+    public ReservationManager() {
+        this(StockGateway.DIRECT);
+    }
+
+    public ReservationManager(StockGateway stockGateway) {
+        this(stockGateway, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public ReservationManager(StockGateway stockGateway, long ttl, TimeUnit unit) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("Reservation TTL must be positive");
+        }
+        this.stockGateway = stockGateway;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.tokenSequence = new AtomicLong();
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    public void setMetrics(CheckoutMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Takes every line's stock and then places a hold on the customer's wallet, or takes nothing.
+     * Stock already taken is given back whatever stops the reservation, including a
+     * failing stock owner.
+     */
+    public Reservation reserve(Customer customer, Collection<CartItem> items, long amount)
+            throws CheckoutException {
+        List<CartItem> ordered = new ArrayList<>(items);
+        ordered.sort(ACQUISITION_ORDER);
+
+        int taken = 0;
+        boolean reserved = false;
+        try {
+            long stageStart = metrics.now();
+            for (; taken < ordered.size(); taken++) {
+                CartItem item = ordered.get(taken);
+                Product product = item.getProduct();
+                if (!tryReserve(product, item.getQuantity())) {
+                    metrics.recordStockContention();
+                    throw new OutOfStockException(product, available(product), item.getQuantity());
+                }
+            }
+
+            metrics.recordStage(Stage.STOCK_UPDATE, stageStart);
+
+            stageStart = metrics.now();
+            Hold hold = customer.getWallet().placeHold(amount);
+            if (hold == null) {
+                throw new InsufficientBalanceException(amount, customer.getBalance());
+            }
+
+            metrics.recordStage(Stage.PAYMENT, stageStart);
+
+            Reservation reservation = new Reservation(tokenSequence.incrementAndGet(), customer,
+                                                      ordered, hold, System.nanoTime() + ttlNanos);
+            pending.put(reservation.getToken(), reservation);
+            reserved = true;
+            return reservation;
+        } finally {
+            if (!reserved) {
+                restore(ordered.subList(0, taken));
+            }
+        }
+    }
+
+    /**
+     * @return units left according to the product's stock owner
+     */
+    public int available(Product product) throws UnknownProductException {
+        try {
+            return stockGateway.available(product);
+        } catch (IllegalArgumentException e) {
+            throw new UnknownProductException(product, e);
+        }
+    }
+
+    /**
+     * Makes the reservation permanent. Fails if it expired or was already released.
+     */
+    public void commit(Reservation reservation) throws CheckoutException {
+        pending.remove(reservation.getToken());
+        if (reservation.isExpired(System.nanoTime())) {
+            reservation.releaseHeld(stockGateway);
+        }
+        if (!reservation.markCommitted()) {
+            throw new CheckoutException(
+                String.format("Reservation %d is no longer valid (%s)",
+                            reservation.getToken(), reservation.getState()));
+        }
+    }
+
+    public void release(Reservation reservation) {
+        pending.remove(reservation.getToken());
+        reservation.releaseHeld(stockGateway);
+    }
+
+    /**
+     * Releases every pending reservation whose TTL has passed.
+     *
+     * @return number of reservations released
+     */
+    public int releaseExpired() {
+        long now = System.nanoTime();
+        int released = 0;
+        for (Reservation reservation : pending.values()) {
+            if (reservation.isExpired(now) && pending.remove(reservation.getToken(), reservation)
+                    && reservation.releaseHeld(stockGateway)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    public StockGateway getStockGateway() {
+        return stockGateway;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private boolean tryReserve(Product product, int quantity) throws UnknownProductException {
+        try {
+            return stockGateway.tryReserve(product, quantity);
+        } catch (IllegalArgumentException e) {
+            throw new UnknownProductException(product, e);
+        }
+    }
+
+    private void restore(List<CartItem> items) {
+        for (CartItem item : items) {
+            stockGateway.release(item.getProduct(), item.getQuantity());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.inventory;
+
+/**
+ * Per-SKU stock counter that products delegate their inventory to
+ * Implementations must be safe for concurrent use without a global lock
+ */
+public interface StockCounter {
+    /**
+     * @return units currently available for sale
+     */
+    int available();
+
+    /**
+     * Atomically takes the requested units if enough are available.
+     *
+     * @return true if the units were taken, false if stock was insufficient
+     */
+    boolean tryReserve(int quantity);
+
+    /**
+     * Returns previously reserved units to the available pool.
+     */
+    void release(int quantity);
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Routes stock operations to whoever owns a product's inventory
+ * The default goes straight to the product; a sharded catalog routes to the owning shard
+ */
+public interface StockGateway {
+    StockGateway DIRECT = new StockGateway() {
+        @Override
+        public boolean tryReserve(Product product, int quantity) {
+            return product.tryReduceQuantity(quantity);
+        }
+
+        @Override
+        public void release(Product product, int quantity) {
+            product.restoreQuantity(quantity);
+        }
+
+        @Override
+        public int available(Product product) {
+            return product.getAvailableQuantity();
+        }
+    };
+
+    /**
+     * @throws IllegalArgumentException if the product has no stock owner here
+     */
+    boolean tryReserve(Product product, int quantity);
+
+    void release(Product product, int quantity);
+
+    /**
+     * @return units left according to the stock owner, which may not be the given instance
+     * @throws IllegalArgumentException if the product has no stock owner here
+     */
+    int available(Product product);
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Notified after a product's available stock changes, e.g. to keep a search index current
+ * Called on the thread that changed the stock, so implementations must be quick and thread-safe;
+ * notifications from concurrent changes may arrive in any order
+ */
+public interface StockListener {
+    void stockChanged(Product product);
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.model.Product;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * The listeners of one product's stock, shared by every Product object viewing that stock
+ * Copy-on-write, since listeners are added rarely and notified on every stock change
+ */
+public final class StockListeners {
+    private final CopyOnWriteArraySet<StockListener> listeners = new CopyOnWriteArraySet<>();
+
+    public void add(StockListener listener) {
+        listeners.add(listener);
+    }
+
+    public void remove(StockListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void stockChanged(Product product) {
+        for (StockListener listener : listeners) {
+            listener.stockChanged(product);
+        }
+    }
+}
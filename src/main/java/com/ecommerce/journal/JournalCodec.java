@@ -0,0 +1,186 @@
+package com.ecommerce.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of journal files
+ * A file starts with [magic][reserved][generation], where the generation goes up each
+ * time the journal is rolled after compaction. Each record is [payload length][CRC32 of
+ * payload][payload]; the payload is [customer key][amount][line count] followed by
+ * [product key][quantity] per line, with keys stored as [UTF-8 length][UTF-8 bytes]
+ */
+final class JournalCodec {
+    static final int FILE_HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+    static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int FILE_MAGIC = 0x4f4a4e32; // "OJN2"
+    private static final int MAX_KEY_BYTES = 0xffff;
+    private static final int KEY_LENGTH_BYTES = Short.BYTES;
+    private static final int MIN_PAYLOAD_BYTES = KEY_LENGTH_BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MIN_LINE_BYTES = KEY_LENGTH_BYTES + Integer.BYTES;
+
+    private JournalCodec() {
+    }
+
+    static void writeFileHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(FILE_MAGIC).putInt(0).putLong(generation).flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    static long readGeneration(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        long position = 0;
+        while (header.hasRemaining()) {
+            int read = channel.read(header, position);
+            if (read < 0) {
+                throw new IOException("Journal file header is truncated");
+            }
+            position += read;
+        }
+        header.flip();
+        if (header.getInt() != FILE_MAGIC) {
+            throw new IOException("Not an order journal");
+        }
+        header.getInt();
+        return header.getLong();
+    }
+
+    /**
+     * @return the complete framed record, ready to be copied into the write buffer
+     */
+    static byte[] encode(OrderRecord record) {
+        byte[] customerKey = keyBytes(record.getCustomerKey());
+        byte[][] productKeys = new byte[record.getLineCount()][];
+        int payloadBytes = MIN_PAYLOAD_BYTES + customerKey.length;
+        for (int i = 0; i < productKeys.length; i++) {
+            productKeys[i] = keyBytes(record.getProductKey(i));
+            payloadBytes += MIN_LINE_BYTES + productKeys[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadBytes);
+        out.position(RECORD_HEADER_BYTES);
+        putKey(out, customerKey);
+        out.putLong(record.getAmount());
+        out.putInt(record.getLineCount());
+        for (int i = 0; i < productKeys.length; i++) {
+            putKey(out, productKeys[i]);
+            out.putInt(record.getQuantity(i));
+        }
+
+        out.putInt(0, payloadBytes);
+        out.putInt(Integer.BYTES, checksum(out, RECORD_HEADER_BYTES, out.position()));
+        return out.array();
+    }
+
+    /**
+     * Decodes records until the end of the buffer or the first torn or corrupt record.
+     *
+     * @return buffer position just after the last valid record
+     */
+    static int decodeAll(ByteBuffer in, Consumer<OrderRecord> consumer) {
+        int validEnd = in.position();
+        while (in.remaining() >= RECORD_HEADER_BYTES) {
+            int length = in.getInt();
+            int crc = in.getInt();
+            if (length < MIN_PAYLOAD_BYTES || length > in.remaining()
+                    || checksum(in, in.position(), in.position() + length) != crc) {
+                break;
+            }
+            ByteBuffer payload = in.slice();
+            payload.limit(length);
+            OrderRecord record = decode(payload);
+            if (record == null) {
+                break;
+            }
+
+            in.position(in.position() + length);
+            consumer.accept(record);
+            validEnd = in.position();
+        }
+        return validEnd;
+    }
+
+    /**
+     * @return the record, or null if the payload does not parse to exactly its length
+     */
+    private static OrderRecord decode(ByteBuffer payload) {
+        String customerKey = getKey(payload);
+        if (customerKey == null || payload.remaining() < Long.BYTES + Integer.BYTES) {
+            return null;
+        }
+        long amount = payload.getLong();
+        int lineCount = payload.getInt();
+        if (lineCount < 0 || lineCount > payload.remaining() / MIN_LINE_BYTES) {
+            return null;
+        }
+        String[] productKeys = new String[lineCount];
+        int[] quantities = new int[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            productKeys[i] = getKey(payload);
+            if (productKeys[i] == null || payload.remaining() < Integer.BYTES) {
+                return null;
+            }
+            quantities[i] = payload.getInt();
+        }
+        return payload.hasRemaining() ? null : new OrderRecord(customerKey, amount, productKeys, quantities);
+    }
+
+    private static byte[] keyBytes(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Journal key is longer than " + MAX_KEY_BYTES + " bytes: " + key);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a key as the journal does, so a snapshot accepts every key a record can hold.
+     */
+    static void writeKey(DataOutput out, String key) throws IOException {
+        byte[] bytes = keyBytes(key);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readKey(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putKey(ByteBuffer out, byte[] key) {
+        out.putShort((short) key.length);
+        out.put(key);
+    }
+
+    private static String getKey(ByteBuffer in) {
+        if (in.remaining() < KEY_LENGTH_BYTES) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length > in.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(from).limit(to);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
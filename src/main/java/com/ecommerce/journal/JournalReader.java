@@ -0,0 +1,52 @@
+package com.ecommerce.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Replays journal records through read-only memory mappings of the file
+ * The file is mapped one window at a time, so a long tail is no problem as long
+ * as no single record is larger than a window
+ */
+public final class JournalReader {
+    private static final long WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private JournalReader() {
+    }
+
+    /**
+     * Streams every valid record after {@code fromOffset} to the consumer. Offsets
+     * inside the file header are treated as the start of the first record.
+     *
+     * @return file offset just after the last valid record
+     */
+    public static long replay(Path file, long fromOffset, Consumer<OrderRecord> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return Math.max(fromOffset, JournalCodec.FILE_HEADER_BYTES);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return replay(channel, fromOffset, consumer);
+        }
+    }
+
+    static long replay(FileChannel channel, long fromOffset, Consumer<OrderRecord> consumer) throws IOException {
+        long size = channel.size();
+        long position = Math.max(fromOffset, JournalCodec.FILE_HEADER_BYTES);
+        while (position < size) {
+            long windowEnd = Math.min(size, position + WINDOW_BYTES);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            int consumed = JournalCodec.decodeAll(mapped, consumer);
+            position += consumed;
+            if (consumed == 0 || windowEnd == size) {
+                // A torn or corrupt record, or the end of the file
+                break;
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.journal;
+
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Restores stock and balances on startup from the latest snapshot plus the journal tail
+ * Products and customers must be recreated with their initial state before recovery.
+ * The journal identifies them by name, so names must be unique and stable across restarts
+ */
+public final class JournalRecovery {
+    private JournalRecovery() {
+    }
+
+    /**
+     * Applies every journaled order to the matching products and customers.
+     *
+     * @return the snapshot that was applied, covering the whole journal
+     * @throws IOException if the journal names a product or customer that is not given
+     */
+    public static JournalSnapshot recover(Path snapshotFile, Path journalFile,
+                                          Collection<? extends Product> products,
+                                          Collection<Customer> customers) throws IOException {
+        Map<String, Product> productsByName = new HashMap<>();
+        for (Product product : products) {
+            if (productsByName.put(product.getName(), product) != null) {
+                throw new IllegalArgumentException("Product name is not unique: " + product.getName());
+            }
+        }
+        Map<String, Customer> customersByName = new HashMap<>();
+        for (Customer customer : customers) {
+            if (customersByName.put(customer.getName(), customer) != null) {
+                throw new IllegalArgumentException("Customer name is not unique: " + customer.getName());
+            }
+        }
+
+        JournalSnapshot snapshot = JournalSnapshot.load(snapshotFile).advance(journalFile);
+
+        for (Map.Entry<String, Long> entry : snapshot.getStockTaken().entrySet()) {
+            Product product = productsByName.get(entry.getKey());
+            if (product == null) {
+                throw new IOException("Journal references unknown product " + entry.getKey());
+            }
+            product.reduceQuantity(Math.toIntExact(entry.getValue()));
+        }
+
+        for (Map.Entry<String, Long> entry : snapshot.getBalanceTaken().entrySet()) {
+            Customer customer = customersByName.get(entry.getKey());
+            if (customer == null) {
+                throw new IOException("Journal references unknown customer " + entry.getKey());
+            }
+            customer.deductBalance(entry.getValue());
+        }
+
+        return snapshot;
+    }
+}
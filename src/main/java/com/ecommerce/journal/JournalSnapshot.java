@@ -0,0 +1,165 @@
+package com.ecommerce.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Folded journal state up to a position in one journal generation: total stock taken
+ * per product and total balance taken per customer, both keyed by name. Recovery loads
+ * it and replays only the journal tail
+ * Built from the journal file rather than live objects, so it is always consistent
+ * with the records it covers even while checkouts keep appending
+ */
+public class JournalSnapshot {
+    private static final int MAGIC = 0x4a534e33; // "JSN3"
+
+    private final long generation;
+    private final long journalOffset;
+    private final Map<String, Long> stockTaken;
+    private final Map<String, Long> balanceTaken;
+
+    private JournalSnapshot(long generation, long journalOffset,
+                            Map<String, Long> stockTaken, Map<String, Long> balanceTaken) {
+        this.generation = generation;
+        this.journalOffset = journalOffset;
+        this.stockTaken = stockTaken;
+        this.balanceTaken = balanceTaken;
+    }
+
+    public static JournalSnapshot empty() {
+        return new JournalSnapshot(0, JournalCodec.FILE_HEADER_BYTES, new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * @return the stored snapshot, or an empty one if the file does not exist
+     */
+    public static JournalSnapshot load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a journal snapshot: " + file);
+            }
+            long generation = in.readLong();
+            long offset = in.readLong();
+            Map<String, Long> stock = readMap(in);
+            Map<String, Long> balance = readMap(in);
+            return new JournalSnapshot(generation, offset, stock, balance);
+        }
+    }
+
+    /**
+     * A journal from an older generation was already folded in completely before it
+     * was rolled, so it adds nothing.
+     *
+     * @return a new snapshot including every valid record after this one's offset
+     * @throws IOException if the journal is from a newer generation than this snapshot
+     */
+    public JournalSnapshot advance(Path journalFile) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return this;
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            if (channel.size() < JournalCodec.FILE_HEADER_BYTES) {
+                return this;
+            }
+            long journalGeneration = JournalCodec.readGeneration(channel);
+            if (journalGeneration < generation) {
+                return this;
+            }
+            if (journalGeneration > generation) {
+                throw new IOException("Journal generation " + journalGeneration
+                                      + " is newer than snapshot generation " + generation);
+            }
+
+            Map<String, Long> stock = new HashMap<>(stockTaken);
+            Map<String, Long> balance = new HashMap<>(balanceTaken);
+            long end = JournalReader.replay(channel, journalOffset, record -> {
+                balance.merge(record.getCustomerKey(), record.getAmount(), Long::sum);
+                for (int i = 0; i < record.getLineCount(); i++) {
+                    stock.merge(record.getProductKey(i), (long) record.getQuantity(i), Long::sum);
+                }
+            });
+            return new JournalSnapshot(generation, end, stock, balance);
+        }
+    }
+
+    /**
+     * @return the same totals, positioned at the start of the next journal generation
+     */
+    JournalSnapshot rolled() {
+        return new JournalSnapshot(generation + 1, JournalCodec.FILE_HEADER_BYTES, stockTaken, balanceTaken);
+    }
+
+    /**
+     * Atomically replaces the file, forcing the new contents to disk first so the
+     * journal records it covers can be dropped afterwards.
+     */
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeLong(generation);
+            out.writeLong(journalOffset);
+            writeMap(out, stockTaken);
+            writeMap(out, balanceTaken);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    /**
+     * @return units taken from stock per product name
+     */
+    public Map<String, Long> getStockTaken() {
+        return Collections.unmodifiableMap(stockTaken);
+    }
+
+    /**
+     * @return minor units deducted per customer name
+     */
+    public Map<String, Long> getBalanceTaken() {
+        return Collections.unmodifiableMap(balanceTaken);
+    }
+
+    private static Map<String, Long> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Long> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(JournalCodec.readKey(in), in.readLong());
+        }
+        return map;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Long> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Long> entry : map.entrySet()) {
+            JournalCodec.writeKey(out, entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.journal;
+
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Append-only write-ahead journal of committed orders
+ * Appends are group-committed: while one thread writes and forces a batch to disk,
+ * concurrent appends accumulate in memory and are made durable by the next single force.
+ * Call {@link #compact()} periodically to fold the journal into its snapshot and start
+ * over with an empty file
+ */
+public class OrderJournal implements AutoCloseable {
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final Path snapshotFile;
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private FileChannel channel;
+    private ByteBuffer pending;
+    private ByteBuffer flushing;
+    private long appendedCount;
+    private volatile long durableCount;
+    private volatile IOException failure;
+
+    /**
+     * Opens (or creates) a journal without a snapshot; it is scanned in full and cannot be compacted.
+     */
+    public OrderJournal(Path file) throws IOException {
+        this(file, null);
+    }
+
+    /**
+     * Opens (or creates) the journal, dropping any torn record left by a crash. Only the
+     * tail after the snapshot is scanned, and a journal that a crashed compaction already
+     * folded into the snapshot is rolled over before use.
+     */
+    public OrderJournal(Path file, Path snapshotFile) throws IOException {
+        this.file = file;
+        this.snapshotFile = snapshotFile;
+        JournalSnapshot snapshot = snapshotFile == null ? JournalSnapshot.empty() : JournalSnapshot.load(snapshotFile);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long generation = openGeneration(snapshot.getGeneration());
+            long start = JournalCodec.FILE_HEADER_BYTES;
+            if (snapshotFile != null) {
+                if (generation < snapshot.getGeneration()) {
+                    roll(snapshot.getGeneration());
+                } else if (generation > snapshot.getGeneration()) {
+                    throw new IOException("Journal generation " + generation
+                                          + " is newer than snapshot generation " + snapshot.getGeneration());
+                }
+                start = snapshot.getJournalOffset();
+                if (start > channel.size()) {
+                    throw new IOException("Journal is shorter than its snapshot offset " + start);
+                }
+            }
+            long validEnd = JournalReader.replay(channel, start, record -> { });
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+        this.flushing = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+    }
+
+    public void append(Customer customer, long amount, Collection<CartItem> items) throws IOException {
+        String[] productKeys = new String[items.size()];
+        int[] quantities = new int[items.size()];
+        int line = 0;
+        for (CartItem item : items) {
+            productKeys[line] = item.getProduct().getName();
+            quantities[line] = item.getQuantity();
+            line++;
+        }
+        append(new OrderRecord(customer.getName(), amount, productKeys, quantities));
+    }
+
+    /**
+     * Appends the record and returns once it is durable on disk.
+     */
+    public void append(OrderRecord record) throws IOException {
+        checkHealthy();
+        byte[] encoded = JournalCodec.encode(record);
+        long sequence;
+        synchronized (appendLock) {
+            ensureCapacity(encoded.length);
+            pending.put(encoded);
+            sequence = ++appendedCount;
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Folds every durable record into the snapshot file, then replaces the journal with an
+     * empty one of the next generation. Appends keep queueing meanwhile and are written to
+     * the new file. A crash between the two steps is repaired when the journal is reopened.
+     *
+     * @return the snapshot now on disk
+     */
+    public JournalSnapshot compact() throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("Journal was opened without a snapshot file");
+        }
+        synchronized (flushLock) {
+            checkHealthy();
+            writePending();
+            JournalSnapshot snapshot = JournalSnapshot.load(snapshotFile).advance(file).rolled();
+            snapshot.write(snapshotFile);
+            try {
+                roll(snapshot.getGeneration());
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * @return number of records appended and forced to disk since this journal was opened
+     */
+    public long getDurableCount() {
+        return durableCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (flushLock) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the file header to a new journal, or repairs one torn while being created.
+     *
+     * @return the generation of the open file
+     */
+    private long openGeneration(long newGeneration) throws IOException {
+        if (channel.size() < JournalCodec.FILE_HEADER_BYTES) {
+            channel.truncate(0);
+            JournalCodec.writeFileHeader(channel, newGeneration);
+            channel.force(true);
+            return newGeneration;
+        }
+        return JournalCodec.readGeneration(channel);
+    }
+
+    /**
+     * Atomically swaps the journal file for an empty one of the given generation.
+     */
+    private void roll(long newGeneration) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel next = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            JournalCodec.writeFileHeader(next, newGeneration);
+            next.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(JournalCodec.FILE_HEADER_BYTES);
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        synchronized (flushLock) {
+            checkHealthy();
+            if (durableCount >= sequence) {
+                // An earlier leader already wrote this record as part of its group
+                return;
+            }
+            writePending();
+        }
+    }
+
+    /**
+     * Writes and forces every record appended so far. Caller holds the flush lock.
+     */
+    private void writePending() throws IOException {
+        ByteBuffer batch;
+        long upTo;
+        synchronized (appendLock) {
+            batch = pending;
+            pending = flushing;
+            flushing = batch;
+            upTo = appendedCount;
+        }
+
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // The records in this batch are lost; refuse further appends rather than
+            // letting later groups report them as durable
+            failure = e;
+            throw e;
+        } finally {
+            batch.clear();
+        }
+        durableCount = upTo;
+    }
+
+    private void ensureCapacity(int recordBytes) {
+        if (pending.remaining() >= recordBytes) {
+            return;
+        }
+        int capacity = Math.max(pending.capacity() * 2, pending.position() + recordBytes);
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        pending.flip();
+        grown.put(pending);
+        pending = grown;
+    }
+
+    private void checkHealthy() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal is unusable after an earlier write failure", failure);
+        }
+    }
+}
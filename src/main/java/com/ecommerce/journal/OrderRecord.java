@@ -0,0 +1,52 @@
+package com.ecommerce.journal;
+
+/**
+ * One committed order as stored in the journal: who paid how much, and which products left stock
+ * Customers and products are keyed by name rather than by id, since ids are assigned
+ * per process and would point at different objects after a restart
+ */
+public class OrderRecord {
+    private final String customerKey;
+    private final long amount;
+    private final String[] productKeys;
+    private final int[] quantities;
+
+    public OrderRecord(String customerKey, long amount, String[] productKeys, int[] quantities) {
+        if (productKeys.length != quantities.length) {
+            throw new IllegalArgumentException("Each product needs exactly one quantity");
+        }
+        this.customerKey = customerKey;
+        this.amount = amount;
+        this.productKeys = productKeys;
+        this.quantities = quantities;
+    }
+
+    /**
+     * @return the customer's name
+     */
+    public String getCustomerKey() {
+        return customerKey;
+    }
+
+    /**
+     * @return amount deducted from the customer, in minor units
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    public int getLineCount() {
+        return productKeys.length;
+    }
+
+    /**
+     * @return the product's name
+     */
+    public String getProductKey(int line) {
+        return productKeys[line];
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+}
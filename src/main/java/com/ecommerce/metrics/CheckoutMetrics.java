@@ -0,0 +1,53 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.exception.CheckoutException;
+
+/**
+ * Instrumentation surface for the checkout hot path
+ * Callers take timestamps through {@link #now()}, so the disabled implementation
+ * costs no clock reads and every call inlines to nothing
+ */
+public interface CheckoutMetrics {
+    CheckoutMetrics DISABLED = new CheckoutMetrics() {
+        @Override
+        public long now() {
+            return 0;
+        }
+
+        @Override
+        public void recordStage(Stage stage, long startNanos) {
+        }
+
+        @Override
+        public void recordRejection(Class<? extends CheckoutException> type) {
+        }
+
+        @Override
+        public void recordStockContention() {
+        }
+    };
+
+    /**
+     * @return a timestamp to pass to {@link #recordStage}
+     */
+    long now();
+
+    /**
+     * Records the time elapsed since {@code startNanos} against the stage.
+     */
+    void recordStage(Stage stage, long startNanos);
+
+    default void recordRejection(CheckoutException rejection) {
+        recordRejection(rejection.getClass());
+    }
+
+    /**
+     * Records a rejection reported as an outcome rather than a thrown exception.
+     */
+    void recordRejection(Class<? extends CheckoutException> type);
+
+    /**
+     * Records a checkout that passed validation but lost the stock to a concurrent checkout.
+     */
+    void recordStockContention();
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of checkout metrics, registered by {@link RecordingCheckoutMetrics#registerMBean()}
+ */
+public interface CheckoutMetricsMXBean {
+    Map<String, Long> getStageCounts();
+
+    Map<String, Double> getStageMeanMicros();
+
+    Map<String, Double> getStageP99Micros();
+
+    Map<String, Long> getRejectionCounts();
+
+    long getStockContentionCount();
+
+    void reset();
+}
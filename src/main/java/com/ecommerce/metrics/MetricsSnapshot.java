@@ -0,0 +1,52 @@
+package com.ecommerce.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of all checkout metrics
+ */
+public class MetricsSnapshot {
+    private final Map<Stage, LatencyHistogram.Snapshot> stages;
+    private final Map<String, Long> rejections;
+    private final long stockContention;
+
+    public MetricsSnapshot(Map<Stage, LatencyHistogram.Snapshot> stages,
+                           Map<String, Long> rejections, long stockContention) {
+        this.stages = Collections.unmodifiableMap(stages);
+        this.rejections = Collections.unmodifiableMap(rejections);
+        this.stockContention = stockContention;
+    }
+
+    public LatencyHistogram.Snapshot getStage(Stage stage) {
+        return stages.get(stage);
+    }
+
+    public Map<Stage, LatencyHistogram.Snapshot> getStages() {
+        return stages;
+    }
+
+    /**
+     * @return rejection counts keyed by exception simple name, e.g. "OutOfStockException"
+     */
+    public Map<String, Long> getRejections() {
+        return rejections;
+    }
+
+    public long getStockContention() {
+        return stockContention;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<Stage, LatencyHistogram.Snapshot> entry : stages.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                out.append(String.format("%-13s %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        out.append("Rejections ").append(rejections).append('\n');
+        out.append("Stock contention ").append(stockContention).append('\n');
+        return out.toString();
+    }
+}
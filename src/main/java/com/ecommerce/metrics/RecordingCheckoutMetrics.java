@@ -0,0 +1,125 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.exception.CheckoutException;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Checkout metrics backed by one latency histogram per stage and striped counters
+ * Readable through {@link #snapshot()} or, once registered, over JMX
+ */
+public class RecordingCheckoutMetrics implements CheckoutMetrics, CheckoutMetricsMXBean {
+    public static final String OBJECT_NAME = "com.ecommerce:type=CheckoutMetrics";
+
+    private final LatencyHistogram[] stages;
+    private final Map<Class<?>, LongAdder> rejections;
+    private final LongAdder stockContention;
+
+    public RecordingCheckoutMetrics() {
+        this.stages = new LatencyHistogram[Stage.values().length];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+        this.rejections = new ConcurrentHashMap<>();
+        this.stockContention = new LongAdder();
+    }
+
+    @Override
+    public long now() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void recordStage(Stage stage, long startNanos) {
+        stages[stage.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void recordRejection(Class<? extends CheckoutException> type) {
+        LongAdder counter = rejections.get(type);
+        if (counter == null) {
+            counter = rejections.computeIfAbsent(type, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void recordStockContention() {
+        stockContention.increment();
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<Stage, LatencyHistogram.Snapshot> stageSnapshots = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stageSnapshots.put(stage, stages[stage.ordinal()].snapshot());
+        }
+        return new MetricsSnapshot(stageSnapshots, getRejectionCounts(), stockContention.sum());
+    }
+
+    /**
+     * Exposes these metrics as an MXBean under {@link #OBJECT_NAME}.
+     */
+    public void registerMBean() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    @Override
+    public Map<String, Long> getStageCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Stage stage : Stage.values()) {
+            counts.put(stage.name(), stages[stage.ordinal()].getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getStageMeanMicros() {
+        Map<String, Double> means = new TreeMap<>();
+        for (Stage stage : Stage.values()) {
+            means.put(stage.name(), stages[stage.ordinal()].snapshot().getMean() / 1_000.0);
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Double> getStageP99Micros() {
+        Map<String, Double> p99 = new TreeMap<>();
+        for (Stage stage : Stage.values()) {
+            p99.put(stage.name(), stages[stage.ordinal()].valueAtPercentile(0.99) / 1_000.0);
+        }
+        return p99;
+    }
+
+    @Override
+    public Map<String, Long> getRejectionCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : rejections.entrySet()) {
+            counts.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public long getStockContentionCount() {
+        return stockContention.sum();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : stages) {
+            histogram.reset();
+        }
+        rejections.clear();
+        stockContention.reset();
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.metrics;
+
+/**
+ * Timed stages of a checkout
+ */
+public enum Stage {
+    PRICING,
+    SHIPPING_COST,
+    VALIDATION,
+    STOCK_UPDATE,
+    PAYMENT,
+    COMMIT,
+    SHIPMENT,
+    RECEIPT,
+    TOTAL
+}
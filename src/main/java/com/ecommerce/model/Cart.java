@@ -1,17 +1,34 @@
 package com.ecommerce.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.ecommerce.inventory.StockGateway;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Shopping cart that manages cart items
  * Follows Single Responsibility Principle
+ * Every change bumps the cart version, which invalidates any cached pricing
+ * Items are indexed by product identity in insertion order for O(1) add, update and remove
  */
 public class Cart {
-    private List<CartItem> items;
+    private final StockGateway stockGateway;
+    private Map<Product, CartItem> items;
+    private int shippingZone;
+    private long version;
+    private PricingSnapshot cachedPricing;
 
     public Cart() {
-        this.items = new ArrayList<>();
+        this(StockGateway.DIRECT);
+    }
+
+    /**
+     * Creates a cart whose stock checks ask the given stock owner, such as a sharded catalog.
+     */
+    public Cart(StockGateway stockGateway) {
+        this.stockGateway = stockGateway;
+        this.items = new LinkedHashMap<>();
     }
 
     public void addItem(Product product, int quantity) {
@@ -19,41 +36,145 @@ public class Cart {
             throw new IllegalArgumentException("Quantity must be positive");
         }
         
-        if (!product.isInStock(quantity)) {
+        if (product instanceof Expirable && ((Expirable) product).isExpired()) {
             throw new IllegalArgumentException(
-                String.format("Insufficient stock for %s. Available: %d, Requested: %d", 
-                            product.getName(), product.getAvailableQuantity(), quantity));
+                String.format("Product %s has expired on %s", 
+                            product.getName(), ((Expirable) product).getExpiryDate()));
         }
 
+        checkStock(product, quantity);
+
         // Check if product already exists in cart
-        for (CartItem item : items) {
-            if (item.getProduct().equals(product)) {
-                throw new IllegalArgumentException("Product already in cart. Remove first to update quantity.");
-            }
+        if (items.containsKey(product)) {
+            throw new IllegalArgumentException("Product already in cart. Use updateQuantity to change it.");
+        }
+
+        items.put(product, new CartItem(product, quantity));
+        invalidate();
+    }
+
+    /**
+     * Replaces the quantity of a product already in the cart, keeping its position.
+     */
+    public void updateQuantity(Product product, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        if (!items.containsKey(product)) {
+            throw new IllegalArgumentException("Product not in cart. Add it first.");
         }
 
-        items.add(new CartItem(product, quantity));
+        checkStock(product, quantity);
+        items.put(product, new CartItem(product, quantity));
+        invalidate();
     }
 
     public void removeItem(Product product) {
-        items.removeIf(item -> item.getProduct().equals(product));
+        if (items.remove(product) != null) {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return the cart line for the product, or null if it is not in the cart
+     */
+    public CartItem getItem(Product product) {
+        return items.get(product);
+    }
+
+    public boolean contains(Product product) {
+        return items.containsKey(product);
     }
 
-    public List<CartItem> getItems() {
-        return new ArrayList<>(items); // Return defensive copy
+    /**
+     * @return read-only live view of the items in insertion order
+     */
+    public Collection<CartItem> getItems() {
+        return Collections.unmodifiableCollection(items.values());
+    }
+
+    public int size() {
+        return items.size();
     }
 
     public boolean isEmpty() {
         return items.isEmpty();
     }
 
-    public double getSubtotal() {
-        return items.stream()
-                   .mapToDouble(CartItem::getTotalPrice)
-                   .sum();
+    /**
+     * @return subtotal at the products' list prices, before promotions
+     */
+    public long getSubtotal() {
+        return getSubtotal(PriceList.listPrices());
+    }
+
+    /**
+     * @return subtotal at the prices of the given version, before promotions
+     */
+    public long getSubtotal(PriceList prices) {
+        PricingSnapshot pricing = getCachedPricing();
+        if (pricing != null && pricing.getPriceVersion() == prices.getVersion()) {
+            return pricing.getSubtotal();
+        }
+        long subtotal = 0;
+        for (CartItem item : items.values()) {
+            subtotal = Money.add(subtotal, Money.times(prices.priceOf(item.getProduct()), item.getQuantity()));
+        }
+        return subtotal;
     }
 
     public void clear() {
         items.clear();
+        invalidate();
+    }
+
+    public int getShippingZone() {
+        return shippingZone;
+    }
+
+    /**
+     * Sets the destination zone used to quote shipping for this cart.
+     */
+    public void setShippingZone(int shippingZone) {
+        if (shippingZone < 0) {
+            throw new IllegalArgumentException("Shipping zone cannot be negative");
+        }
+        if (shippingZone != this.shippingZone) {
+            this.shippingZone = shippingZone;
+            invalidate();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return pricing computed for the current cart version, or null if the cart changed since
+     */
+    public PricingSnapshot getCachedPricing() {
+        PricingSnapshot pricing = cachedPricing;
+        return pricing != null && pricing.getCartVersion() == version ? pricing : null;
+    }
+
+    public void cachePricing(PricingSnapshot pricing) {
+        if (pricing.getCartVersion() == version) {
+            this.cachedPricing = pricing;
+        }
+    }
+
+    private void checkStock(Product product, int quantity) {
+        int available = stockGateway.available(product);
+        if (available < quantity) {
+            throw new IllegalArgumentException(
+                String.format("Insufficient stock for %s. Available: %d, Requested: %d", 
+                            product.getName(), available, quantity));
+        }
+    }
+
+    private void invalidate() {
+        version++;
+        cachedPricing = null;
     }
 }
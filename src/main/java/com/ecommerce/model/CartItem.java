@@ -21,8 +21,8 @@ public class CartItem {
         return quantity;
     }
 
-    public double getTotalPrice() {
-        return product.getPrice() * quantity;
+    public long getTotalPrice() {
+        return Money.times(product.getPrice(), quantity);
     }
 
     @Override
@@ -1,43 +1,68 @@
 package com.ecommerce.model;
 
+import com.ecommerce.wallet.Wallet;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Customer entity with balance management
  * Follows Single Responsibility Principle
+ * Funds live in the customer's own Wallet (minor units, see Money), so concurrent
+ * orders cannot overdraw and unrelated customers never contend
  */
 public class Customer {
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final long id;
     private String name;
-    private double balance;
+    private final Wallet wallet;
 
-    public Customer(String name, double balance) {
+    public Customer(String name, long balance) {
+        this.id = ID_SEQUENCE.incrementAndGet();
         this.name = name;
-        this.balance = balance;
+        this.wallet = new Wallet(balance);
+    }
+
+    public long getId() {
+        return id;
     }
 
     public String getName() {
         return name;
     }
 
-    public double getBalance() {
-        return balance;
+    public Wallet getWallet() {
+        return wallet;
     }
 
-    public boolean hasEnoughBalance(double amount) {
-        return balance >= amount;
+    public long getBalance() {
+        return wallet.getAvailable();
     }
 
-    public void deductBalance(double amount) {
-        if (amount > balance) {
+    public boolean hasEnoughBalance(long amount) {
+        return wallet.getAvailable() >= amount;
+    }
+
+    public void deductBalance(long amount) {
+        if (!wallet.tryDebit(amount)) {
             throw new IllegalArgumentException("Insufficient balance");
         }
-        this.balance -= amount;
     }
 
-    public void addBalance(double amount) {
-        this.balance += amount;
+    /**
+     * Deducts the amount only if the balance covers it, as a single atomic step.
+     *
+     * @return true if the amount was deducted
+     */
+    public boolean tryDeductBalance(long amount) {
+        return wallet.tryDebit(amount);
+    }
+
+    public void addBalance(long amount) {
+        wallet.credit(amount);
     }
 
     @Override
     public String toString() {
-        return String.format("Customer: %s (Balance: %.2f)", name, balance);
+        return String.format("Customer: %s (Balance: %s)", name, Money.formatFixed(getBalance()));
     }
 }
@@ -0,0 +1,56 @@
+package com.ecommerce.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Shared, per-day cached view of the current date used for expiry checks
+ * Reading today's date is a volatile read and a time comparison; the calendar
+ * is only consulted once the cached day has ended
+ */
+public final class DayClock {
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Day cached = compute(clock);
+
+    private DayClock() {
+    }
+
+    public static long todayEpochDay() {
+        Day day = cached;
+        if (clock.millis() >= day.endMillis) {
+            day = compute(clock);
+            cached = day;
+        }
+        return day.epochDay;
+    }
+
+    public static LocalDate today() {
+        return LocalDate.ofEpochDay(todayEpochDay());
+    }
+
+    /**
+     * Replaces the time source, e.g. to pin the date in a demo or replay.
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+        cached = compute(newClock);
+    }
+
+    private static Day compute(Clock source) {
+        ZoneId zone = source.getZone();
+        LocalDate date = LocalDate.now(source);
+        long endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day(date.toEpochDay(), endMillis);
+    }
+
+    private static final class Day {
+        private final long epochDay;
+        private final long endMillis;
+
+        private Day(long epochDay, long endMillis) {
+            this.epochDay = epochDay;
+            this.endMillis = endMillis;
+        }
+    }
+}
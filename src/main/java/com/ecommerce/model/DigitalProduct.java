@@ -6,7 +6,7 @@ package com.ecommerce.model;
  */
 public class DigitalProduct extends Product {
 
-    public DigitalProduct(String name, double price, int availableQuantity) {
+    public DigitalProduct(String name, long price, int availableQuantity) {
         super(name, price, availableQuantity);
     }
 
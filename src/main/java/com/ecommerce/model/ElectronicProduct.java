@@ -7,7 +7,7 @@ package com.ecommerce.model;
 public class ElectronicProduct extends Product implements Shippable {
     private double weight; // in kg
 
-    public ElectronicProduct(String name, double price, int availableQuantity, double weight) {
+    public ElectronicProduct(String name, long price, int availableQuantity, double weight) {
         super(name, price, availableQuantity);
         this.weight = weight;
     }
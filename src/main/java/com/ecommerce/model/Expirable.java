@@ -9,4 +9,9 @@ import java.time.LocalDate;
 public interface Expirable {
     LocalDate getExpiryDate();
     boolean isExpired();
+
+    /**
+     * Marks the product unsellable ahead of its date check, e.g. by an expiry sweep.
+     */
+    void markExpired();
 }
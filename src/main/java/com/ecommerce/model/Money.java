@@ -0,0 +1,59 @@
+package com.ecommerce.model;
+
+/**
+ * Exact money arithmetic on long minor units (cents)
+ * Amounts stay primitive so pricing never allocates and totals reconcile exactly
+ */
+public final class Money {
+    public static final long MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    /**
+     * @return the amount in minor units for a whole number of major units
+     */
+    public static long of(long major) {
+        return Math.multiplyExact(major, MINOR_PER_MAJOR);
+    }
+
+    public static long of(long major, int minor) {
+        if (minor < 0 || minor >= MINOR_PER_MAJOR) {
+            throw new IllegalArgumentException("Minor units must be between 0 and " + (MINOR_PER_MAJOR - 1));
+        }
+        return Math.addExact(of(major), major < 0 ? -minor : minor);
+    }
+
+    /**
+     * Rounds a computed (non-money) quantity such as weight * rate to the nearest minor unit.
+     */
+    public static long round(double minorUnits) {
+        return Math.round(minorUnits);
+    }
+
+    public static long times(long unitAmount, long quantity) {
+        return Math.multiplyExact(unitAmount, quantity);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Formats whole amounts without decimals and anything else with exactly two.
+     */
+    public static String format(long amount) {
+        return amount % MINOR_PER_MAJOR == 0
+            ? Long.toString(amount / MINOR_PER_MAJOR)
+            : formatFixed(amount);
+    }
+
+    /**
+     * Formats the amount with exactly two decimals.
+     */
+    public static String formatFixed(long amount) {
+        long abs = Math.abs(amount);
+        long minor = abs % MINOR_PER_MAJOR;
+        return (amount < 0 ? "-" : "") + (abs / MINOR_PER_MAJOR) + (minor < 10 ? ".0" : ".") + minor;
+    }
+}
@@ -8,12 +8,15 @@ import java.time.LocalDate;
  */
 public class PerishableProduct extends Product implements Expirable, Shippable {
     private LocalDate expiryDate;
+    private final long expiryEpochDay;
+    private volatile boolean expired;
     private double weight; // in kg
 
-    public PerishableProduct(String name, double price, int availableQuantity, 
+    public PerishableProduct(String name, long price, int availableQuantity, 
                            LocalDate expiryDate, double weight) {
         super(name, price, availableQuantity);
         this.expiryDate = expiryDate;
+        this.expiryEpochDay = expiryDate.toEpochDay();
         this.weight = weight;
     }
 
@@ -22,9 +25,18 @@ public class PerishableProduct extends Product implements Expirable, Shippable {
         return expiryDate;
     }
 
+    public long getExpiryEpochDay() {
+        return expiryEpochDay;
+    }
+
     @Override
     public boolean isExpired() {
-        return LocalDate.now().isAfter(expiryDate);
+        return expired || DayClock.todayEpochDay() > expiryEpochDay;
+    }
+
+    @Override
+    public void markExpired() {
+        this.expired = true;
     }
 
     @Override
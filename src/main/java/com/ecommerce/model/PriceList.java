@@ -0,0 +1,124 @@
+package com.ecommerce.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, versioned set of prices that overrides products' list prices
+ * SKUs live in an open-addressing table of primitive longs, so a lookup is a few
+ * array reads with no locking and no boxing; products without an entry sell at
+ * their list price. Versions come from one sequence shared by every PriceTable, so
+ * a version seen once never names different prices
+ */
+public final class PriceList {
+    static final PriceList EMPTY = new PriceList(0, new long[0], new long[0], 0);
+
+    private static final long EMPTY_SKU = 0;
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    private final long version;
+    private final long[] skus;
+    private final long[] prices;
+    private final int size;
+
+    private PriceList(long version, long[] skus, long[] prices, int size) {
+        this.version = version;
+        this.skus = skus;
+        this.prices = prices;
+        this.size = size;
+    }
+
+    /**
+     * @return the list every version starts from, pricing each product at its list price
+     */
+    public static PriceList listPrices() {
+        return EMPTY;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return number of SKUs priced by this list rather than by their product
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the product's price in minor units under this version
+     */
+    public long priceOf(Product product) {
+        int slot = find(product.getSku());
+        return slot >= 0 ? prices[slot] : product.getPrice();
+    }
+
+    /**
+     * Copy-on-write update: returns a new version with the given SKUs repriced,
+     * leaving this list untouched for readers still using it.
+     */
+    PriceList with(long[] updatedSkus, long[] updatedPrices) {
+        int capacity = Math.max(skus.length, 16);
+        while ((size + updatedSkus.length) * 2 > capacity) {
+            capacity <<= 1;
+        }
+
+        long[] newSkus = new long[capacity];
+        long[] newPrices = new long[capacity];
+        int newSize = 0;
+        for (int i = 0; i < skus.length; i++) {
+            if (skus[i] != EMPTY_SKU) {
+                newSize += put(newSkus, newPrices, skus[i], prices[i]);
+            }
+        }
+        for (int i = 0; i < updatedSkus.length; i++) {
+            if (updatedSkus[i] <= 0) {
+                throw new IllegalArgumentException("Invalid SKU " + updatedSkus[i]);
+            }
+            if (updatedPrices[i] < 0) {
+                throw new IllegalArgumentException("Price cannot be negative for SKU " + updatedSkus[i]);
+            }
+            newSize += put(newSkus, newPrices, updatedSkus[i], updatedPrices[i]);
+        }
+        return new PriceList(VERSION_SEQUENCE.incrementAndGet(), newSkus, newPrices, newSize);
+    }
+
+    private int find(long sku) {
+        if (size == 0) {
+            return -1;
+        }
+        int mask = skus.length - 1;
+        for (int slot = slotOf(sku, mask); ; slot = (slot + 1) & mask) {
+            long candidate = skus[slot];
+            if (candidate == sku) {
+                return slot;
+            }
+            if (candidate == EMPTY_SKU) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return 1 if the SKU was added, 0 if it replaced an existing entry
+     */
+    private static int put(long[] skus, long[] prices, long sku, long price) {
+        int mask = skus.length - 1;
+        for (int slot = slotOf(sku, mask); ; slot = (slot + 1) & mask) {
+            if (skus[slot] == EMPTY_SKU) {
+                skus[slot] = sku;
+                prices[slot] = price;
+                return 1;
+            }
+            if (skus[slot] == sku) {
+                prices[slot] = price;
+                return 0;
+            }
+        }
+    }
+
+    private static int slotOf(long sku, int mask) {
+        long h = sku * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.model;
+
+/**
+ * Publishes price changes as whole PriceList versions
+ * Readers take the current list with one volatile read and price an entire order
+ * against it; writers build the next version off to the side and swap it in, so
+ * repricing thousands of SKUs never blocks or tears a checkout
+ */
+public class PriceTable {
+    private volatile PriceList current = PriceList.EMPTY;
+
+    /**
+     * @return the current version; it never changes, so an order priced from it is consistent
+     */
+    public PriceList snapshot() {
+        return current;
+    }
+
+    public void setPrice(Product product, long price) {
+        reprice(new long[] {product.getSku()}, new long[] {price});
+    }
+
+    /**
+     * Reprices many SKUs as one new version; readers see all of the changes or none.
+     *
+     * @return the published version
+     */
+    public synchronized PriceList reprice(long[] skus, long[] prices) {
+        if (skus.length != prices.length) {
+            throw new IllegalArgumentException("Each SKU needs exactly one price");
+        }
+        PriceList next = current.with(skus, prices);
+        current = next;
+        return next;
+    }
+
+    public long getVersion() {
+        return current.getVersion();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.model;
+
+import com.ecommerce.shipping.RateTable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable pricing of one cart version, with amounts in minor units, computed once per checkout
+ * Carries the items, shipment lines and rate table it was priced from so later
+ * stages reuse them; the shipment notice plans its parcels from the same table
+ * Every amount comes from a single PriceList version, promotion plan and shipping
+ * rate table, recorded alongside the cart version
+ */
+public class PricingSnapshot {
+    private final long cartVersion;
+    private final long priceVersion;
+    private final long promotionVersion;
+    private final RateTable rates;
+    private final int shippingZone;
+    private final List<CartItem> items;
+    private final long[] lineTotals;
+    private final List<ShipmentLine> shipmentLines;
+    private final long subtotal;
+    private final long discount;
+    private final double totalWeight;
+    private final long shippingFees;
+    private final boolean shippingWaived;
+
+    /**
+     * @param lineTotals price of each item line before discounts, in the same order as {@code items}
+     * @param discount   promotion discount taken off the subtotal
+     * @param shippingWaived true if a promotion made shipping free, so no parcel is charged
+     */
+    public PricingSnapshot(long cartVersion, long priceVersion, long promotionVersion, RateTable rates,
+                           int shippingZone, List<CartItem> items, long[] lineTotals,
+                           List<ShipmentLine> shipmentLines, long subtotal, long discount, double totalWeight,
+                           long shippingFees, boolean shippingWaived) {
+        if (lineTotals.length != items.size()) {
+            throw new IllegalArgumentException("Each item needs exactly one line total");
+        }
+        this.cartVersion = cartVersion;
+        this.priceVersion = priceVersion;
+        this.promotionVersion = promotionVersion;
+        this.rates = rates;
+        this.shippingZone = shippingZone;
+        this.items = Collections.unmodifiableList(items);
+        this.lineTotals = lineTotals;
+        this.shipmentLines = Collections.unmodifiableList(shipmentLines);
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.totalWeight = totalWeight;
+        this.shippingFees = shippingFees;
+        this.shippingWaived = shippingWaived;
+    }
+
+    public long getCartVersion() {
+        return cartVersion;
+    }
+
+    /**
+     * @return version of the PriceList the amounts were taken from
+     */
+    public long getPriceVersion() {
+        return priceVersion;
+    }
+
+    /**
+     * @return version of the promotion plan the discount was computed from
+     */
+    public long getPromotionVersion() {
+        return promotionVersion;
+    }
+
+    /**
+     * @return version of the shipping RateTable the shipping fees were quoted from
+     */
+    public long getRateVersion() {
+        return rates.getVersion();
+    }
+
+    /**
+     * @return the shipping RateTable the shipping fees were quoted from
+     */
+    public RateTable getRates() {
+        return rates;
+    }
+
+    public int getShippingZone() {
+        return shippingZone;
+    }
+
+    public List<CartItem> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the price of the item line at {@code index} under this snapshot's price version
+     */
+    public long getLineTotal(int index) {
+        return lineTotals[index];
+    }
+
+    public List<ShipmentLine> getShipmentLines() {
+        return shipmentLines;
+    }
+
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * @return promotion discount in minor units, already excluded from {@link #getTotal()}
+     */
+    public long getDiscount() {
+        return discount;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public long getShippingFees() {
+        return shippingFees;
+    }
+
+    /**
+     * @return true if a promotion made shipping free
+     */
+    public boolean isShippingWaived() {
+        return shippingWaived;
+    }
+
+    public long getTotal() {
+        return Money.add(subtotal - discount, shippingFees);
+    }
+}
@@ -1,45 +1,137 @@
 package com.ecommerce.model;
 
+import com.ecommerce.inventory.AtomicStockCounter;
+import com.ecommerce.inventory.StockCounter;
+import com.ecommerce.inventory.StockListener;
+import com.ecommerce.inventory.StockListeners;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Abstract base class for all products
  * Follows Single Responsibility Principle
+ * Stock is delegated to a per-SKU StockCounter so concurrent checkouts never oversell
  */
 public abstract class Product {
+    private static final AtomicLong SKU_SEQUENCE = new AtomicLong();
+
+    protected final long sku;
     protected String name;
-    protected double price;
-    protected int availableQuantity;
+    protected long price; // in minor units, see Money
+    private final StockCounter stock;
+    private volatile StockListeners stockListeners;
+
+    public Product(String name, long price, int availableQuantity) {
+        this(SKU_SEQUENCE.incrementAndGet(), name, price, new AtomicStockCounter(availableQuantity));
+    }
 
-    public Product(String name, double price, int availableQuantity) {
+    /**
+     * For products whose SKU and stock are owned elsewhere, such as views over an external store.
+     */
+    protected Product(long sku, String name, long price, StockCounter stock) {
+        this.sku = sku;
         this.name = name;
         this.price = price;
-        this.availableQuantity = availableQuantity;
+        this.stock = stock;
+    }
+
+    /**
+     * Reserves a contiguous block of SKUs for an external store.
+     *
+     * @return the first SKU of the block
+     */
+    public static long allocateSkus(int count) {
+        return SKU_SEQUENCE.getAndAdd(count) + 1;
+    }
+
+    public long getSku() {
+        return sku;
     }
 
     public String getName() {
         return name;
     }
 
-    public double getPrice() {
+    public long getPrice() {
         return price;
     }
 
     public int getAvailableQuantity() {
-        return availableQuantity;
+        return stock.available();
+    }
+
+    /**
+     * Atomically reduces stock if enough units are available.
+     *
+     * @return true if the stock was reduced, false otherwise
+     */
+    public boolean tryReduceQuantity(int quantity) {
+        if (!stock.tryReserve(quantity)) {
+            return false;
+        }
+        notifyStockChanged();
+        return true;
     }
 
     public void reduceQuantity(int quantity) {
-        if (quantity > availableQuantity) {
+        if (!tryReduceQuantity(quantity)) {
             throw new IllegalArgumentException("Cannot reduce quantity by more than available");
         }
-        this.availableQuantity -= quantity;
+    }
+
+    /**
+     * Returns units taken by a reduction that could not be completed.
+     */
+    public void restoreQuantity(int quantity) {
+        stock.release(quantity);
+        notifyStockChanged();
+    }
+
+    /**
+     * Registers a listener told about every stock change made through this product,
+     * or through any other view of the same stock.
+     */
+    public void addStockListener(StockListener listener) {
+        getStockListeners(true).add(listener);
+    }
+
+    public void removeStockListener(StockListener listener) {
+        StockListeners listeners = getStockListeners(false);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
     }
 
     public boolean isInStock(int requestedQuantity) {
-        return availableQuantity >= requestedQuantity;
+        return stock.available() >= requestedQuantity;
+    }
+
+    /**
+     * Products viewing stock owned elsewhere override this to share the owner's listeners.
+     *
+     * @return the listeners of this product's stock, or null if there are none and {@code create} is false
+     */
+    protected StockListeners getStockListeners(boolean create) {
+        StockListeners listeners = stockListeners;
+        if (listeners == null && create) {
+            synchronized (this) {
+                if (stockListeners == null) {
+                    stockListeners = new StockListeners();
+                }
+                listeners = stockListeners;
+            }
+        }
+        return listeners;
+    }
+
+    private void notifyStockChanged() {
+        StockListeners listeners = getStockListeners(false);
+        if (listeners != null) {
+            listeners.stockChanged(this);
+        }
     }
 
     @Override
     public String toString() {
-        return String.format("%s (Price: %.2f, Available: %d)", name, price, availableQuantity);
+        return String.format("%s (Price: %s, Available: %d)", name, Money.formatFixed(getPrice()), getAvailableQuantity());
     }
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.model;
+
+/**
+ * One shippable product and the number of units shipped of it
+ * Lets shipping work per distinct item instead of per unit
+ */
+public class ShipmentLine {
+    private final Shippable item;
+    private final int quantity;
+
+    public ShipmentLine(Shippable item, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        this.item = item;
+        this.quantity = quantity;
+    }
+
+    public Shippable getItem() {
+        return item;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getTotalWeight() {
+        return item.getWeight() * quantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx %s", quantity, item.getName());
+    }
+}
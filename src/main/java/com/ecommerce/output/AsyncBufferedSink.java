@@ -0,0 +1,141 @@
+package com.ecommerce.output;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Renders and writes documents on a background thread, in batches
+ * The queue is bounded: when the writer falls behind, publish blocks (back-pressure)
+ * A document that fails to render is reported and skipped; the writer keeps going
+ */
+public class AsyncBufferedSink implements OutputSink, AutoCloseable {
+    private static final Document SHUTDOWN = out -> { };
+
+    private final BlockingQueue<Document> queue;
+    private final PrintStream target;
+    private final int batchSize;
+    private final Thread writer;
+    // Publishers share the read lock so close can wait them out before queueing SHUTDOWN
+    private final ReadWriteLock closeLock;
+    private final AtomicLong failedDocuments;
+    private boolean closed;
+
+    public AsyncBufferedSink(PrintStream target, int capacity, int batchSize) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.target = target;
+        this.batchSize = batchSize;
+        this.closeLock = new ReentrantReadWriteLock();
+        this.failedDocuments = new AtomicLong();
+        this.writer = new Thread(this::drain, "output-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the document, blocking while the queue is full.
+     *
+     * @throws IllegalStateException if the sink has been closed
+     */
+    @Override
+    public void publish(Document document) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Sink is closed");
+            }
+            queue.put(document);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for output queue", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of documents skipped because rendering them failed
+     */
+    public long getFailedDocuments() {
+        return failedDocuments.get();
+    }
+
+    /**
+     * Writes everything already published, then stops the writer thread.
+     * If interrupted while waiting, returns with the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            queue.put(SHUTDOWN);
+            closed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Document> batch = new ArrayList<>(batchSize);
+        StringBuilder buffer = new StringBuilder();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            for (Document document : batch) {
+                if (document == SHUTDOWN) {
+                    running = false;
+                } else {
+                    render(document, buffer);
+                }
+            }
+
+            target.print(buffer);
+            target.flush();
+            buffer.setLength(0);
+            batch.clear();
+        }
+    }
+
+    private void render(Document document, StringBuilder buffer) {
+        int mark = buffer.length();
+        try {
+            document.renderTo(buffer);
+        } catch (RuntimeException e) {
+            // Drop the partial output of this document only
+            buffer.setLength(mark);
+            failedDocuments.incrementAndGet();
+            System.err.println("Failed to render " + document.getClass().getSimpleName() + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.output;
+
+/**
+ * Writes each document to standard output on the calling thread
+ */
+public class ConsoleSink implements OutputSink {
+    // Each publishing thread renders into its own buffer, reused across documents
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    @Override
+    public void publish(Document document) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        document.renderTo(out);
+        System.out.print(out);
+    }
+}
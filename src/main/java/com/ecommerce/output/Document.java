@@ -0,0 +1,8 @@
+package com.ecommerce.output;
+
+/**
+ * Structured output record (receipt, shipment notice) that renders itself as text
+ */
+public interface Document {
+    void renderTo(StringBuilder out);
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.output;
+
+/**
+ * Destination for documents produced during checkout
+ * Follows Dependency Inversion Principle so checkout does not depend on console I/O
+ */
+public interface OutputSink {
+    void publish(Document document);
+}
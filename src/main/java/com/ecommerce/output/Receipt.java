@@ -0,0 +1,174 @@
+package com.ecommerce.output;
+
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.PricingSnapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured checkout receipt with amounts in minor units
+ */
+public class Receipt implements Document, TextTemplate.Fields {
+    private static final int QUANTITY = 0;
+    private static final int NAME = 1;
+    private static final int AMOUNT = 2;
+    private static final TextTemplate ITEM_LINE =
+        TextTemplate.compile("{quantity}x {name} {amount}\n", "quantity", "name", "amount");
+
+    private static final int SUBTOTAL = 0;
+    private static final int DISCOUNT = 1;
+    private static final int SHIPPING = 2;
+    private static final int TOTAL = 3;
+    private static final int BALANCE = 4;
+    private static final String[] SUMMARY_FIELDS = {"subtotal", "discount", "shipping", "total", "balance"};
+    private static final TextTemplate SUBTOTAL_LINES = TextTemplate.compile(
+        "----------------------\n"
+            + "Subtotal {subtotal}\n",
+        SUMMARY_FIELDS);
+    private static final TextTemplate DISCOUNT_LINE = TextTemplate.compile("Discount -{discount}\n", SUMMARY_FIELDS);
+    private static final TextTemplate TOTAL_LINES = TextTemplate.compile(
+        "Shipping {shipping}\n"
+            + "Amount {total}\n"
+            + "Customer balance after payment: {balance}\n",
+        SUMMARY_FIELDS);
+
+    /**
+     * One purchased product on the receipt
+     */
+    public static class Line implements TextTemplate.Fields {
+        private final int quantity;
+        private final String name;
+        private final long amount;
+
+        public Line(int quantity, String name, long amount) {
+            this.quantity = quantity;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void appendField(int field, StringBuilder out) {
+            switch (field) {
+                case QUANTITY:
+                    out.append(quantity);
+                    break;
+                case NAME:
+                    out.append(name);
+                    break;
+                case AMOUNT:
+                    TextFormat.appendMoney(out, amount);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown receipt line field " + field);
+            }
+        }
+    }
+
+    private final List<Line> lines;
+    private final long subtotal;
+    private final long discount;
+    private final long shippingFees;
+    private final long total;
+    private final long remainingBalance;
+
+    public Receipt(List<Line> lines, long subtotal, long shippingFees, long total, long remainingBalance) {
+        this(lines, subtotal, 0, shippingFees, total, remainingBalance);
+    }
+
+    public Receipt(List<Line> lines, long subtotal, long discount, long shippingFees, long total,
+                   long remainingBalance) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.shippingFees = shippingFees;
+        this.total = total;
+        this.remainingBalance = remainingBalance;
+    }
+
+    public static Receipt from(PricingSnapshot pricing, long remainingBalance) {
+        List<CartItem> items = pricing.getItems();
+        List<Line> lines = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            lines.add(new Line(item.getQuantity(), item.getProduct().getName(), pricing.getLineTotal(i)));
+        }
+        return new Receipt(lines, pricing.getSubtotal(), pricing.getDiscount(), pricing.getShippingFees(),
+                           pricing.getTotal(), remainingBalance);
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * @return promotion discount in minor units, 0 if none applied
+     */
+    public long getDiscount() {
+        return discount;
+    }
+
+    public long getShippingFees() {
+        return shippingFees;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getRemainingBalance() {
+        return remainingBalance;
+    }
+
+    @Override
+    public void renderTo(StringBuilder out) {
+        out.append("** Checkout receipt **\n");
+        for (Line line : lines) {
+            ITEM_LINE.render(out, line);
+        }
+        SUBTOTAL_LINES.render(out, this);
+        if (discount > 0) {
+            DISCOUNT_LINE.render(out, this);
+        }
+        TOTAL_LINES.render(out, this);
+    }
+
+    @Override
+    public void appendField(int field, StringBuilder out) {
+        switch (field) {
+            case SUBTOTAL:
+                TextFormat.appendMoney(out, subtotal);
+                break;
+            case DISCOUNT:
+                TextFormat.appendMoney(out, discount);
+                break;
+            case SHIPPING:
+                TextFormat.appendMoney(out, shippingFees);
+                break;
+            case TOTAL:
+                TextFormat.appendMoney(out, total);
+                break;
+            case BALANCE:
+                TextFormat.appendMoneyFixed(out, remainingBalance);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown receipt field " + field);
+        }
+    }
+}
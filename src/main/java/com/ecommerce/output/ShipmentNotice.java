@@ -0,0 +1,155 @@
+package com.ecommerce.output;
+
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.shipping.Parcel;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured shipment notice listing the shipped items, the parcels they were
+ * packed into and the total package weight
+ * Parcel costs are left out when shipping was waived, since none were charged;
+ * a run of identical parcels is listed once with its range
+ */
+public class ShipmentNotice implements Document {
+    private static final int QUANTITY = 0;
+    private static final int NAME = 1;
+    private static final int WEIGHT = 2;
+    private static final int COST = 3;
+    private static final int INDEX = 4;
+    private static final int COUNT = 5;
+    private static final int LAST = 6;
+    private static final String[] FIELDS = {"quantity", "name", "weight", "cost", "index", "count", "last"};
+
+    private static final TextTemplate ITEM_LINE = TextTemplate.compile("{quantity}x {name} {weight}\n", FIELDS);
+    private static final TextTemplate TOTAL_LINE = TextTemplate.compile("Total package weight {weight}kg\n", FIELDS);
+    private static final TextTemplate PARCEL_HEADER = TextTemplate.compile("Parcel {index} of {count}: ", FIELDS);
+    private static final TextTemplate PARCEL_RANGE_HEADER =
+        TextTemplate.compile("Parcels {index}-{last} of {count}, each: ", FIELDS);
+    private static final TextTemplate PARCEL_ITEM = TextTemplate.compile("{quantity}x {name}", FIELDS);
+    private static final TextTemplate PARCEL_FOOTER = TextTemplate.compile(" - {weight} (cost {cost})\n", FIELDS);
+    private static final TextTemplate PARCEL_FOOTER_WAIVED = TextTemplate.compile(" - {weight}\n", FIELDS);
+
+    private final List<ShipmentLine> lines;
+    private final List<Parcel> parcels;
+    private final double totalWeight;
+    private final boolean shippingWaived;
+
+    public ShipmentNotice(List<ShipmentLine> lines, List<Parcel> parcels, double totalWeight) {
+        this(lines, parcels, totalWeight, false);
+    }
+
+    public ShipmentNotice(List<ShipmentLine> lines, List<Parcel> parcels, double totalWeight,
+                          boolean shippingWaived) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.parcels = Collections.unmodifiableList(parcels);
+        this.totalWeight = totalWeight;
+        this.shippingWaived = shippingWaived;
+    }
+
+    public List<ShipmentLine> getLines() {
+        return lines;
+    }
+
+    public List<Parcel> getParcels() {
+        return parcels;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public boolean isShippingWaived() {
+        return shippingWaived;
+    }
+
+    @Override
+    public void renderTo(StringBuilder out) {
+        RenderFields fields = new RenderFields();
+        out.append("** Shipment notice **\n");
+        for (ShipmentLine line : lines) {
+            fields.line = line;
+            fields.weight = line.getTotalWeight();
+            ITEM_LINE.render(out, fields);
+        }
+        fields.weight = totalWeight;
+        fields.plainKg = true;
+        TOTAL_LINE.render(out, fields);
+        fields.plainKg = false;
+
+        // A single parcel is the whole shipment, so only list parcels when there are several
+        long parcelCount = 0;
+        for (int i = 0; i < parcels.size(); i++) {
+            parcelCount += parcels.get(i).getCopies();
+        }
+        if (parcelCount > 1) {
+            fields.count = parcelCount;
+            fields.index = 1;
+            for (int i = 0; i < parcels.size(); i++) {
+                Parcel parcel = parcels.get(i);
+                // Identical copies share one row
+                fields.last = fields.index + parcel.getCopies() - 1;
+                (parcel.getCopies() > 1 ? PARCEL_RANGE_HEADER : PARCEL_HEADER).render(out, fields);
+                List<ShipmentLine> contents = parcel.getLines();
+                for (int j = 0; j < contents.size(); j++) {
+                    if (j > 0) {
+                        out.append(", ");
+                    }
+                    fields.line = contents.get(j);
+                    PARCEL_ITEM.render(out, fields);
+                }
+                fields.weight = parcel.getWeight();
+                fields.cost = parcel.getCost();
+                (shippingWaived ? PARCEL_FOOTER_WAIVED : PARCEL_FOOTER).render(out, fields);
+                fields.index = fields.last + 1;
+            }
+        }
+    }
+
+    /**
+     * Values of the row currently being rendered, reused across rows of one render call
+     */
+    private static final class RenderFields implements TextTemplate.Fields {
+        private ShipmentLine line;
+        private double weight;
+        private boolean plainKg;
+        private long cost;
+        private long index;
+        private long count;
+        private long last;
+
+        @Override
+        public void appendField(int field, StringBuilder out) {
+            switch (field) {
+                case QUANTITY:
+                    out.append(line.getQuantity());
+                    break;
+                case NAME:
+                    out.append(line.getItem().getName());
+                    break;
+                case WEIGHT:
+                    // Item and parcel weights switch to grams below 1kg; the total is always kg
+                    if (plainKg) {
+                        TextFormat.appendFixed(out, weight, 1);
+                    } else {
+                        TextFormat.appendWeight(out, weight);
+                    }
+                    break;
+                case COST:
+                    TextFormat.appendMoney(out, cost);
+                    break;
+                case INDEX:
+                    out.append(index);
+                    break;
+                case COUNT:
+                    out.append(count);
+                    break;
+                case LAST:
+                    out.append(last);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown shipment notice field " + field);
+            }
+        }
+    }
+}
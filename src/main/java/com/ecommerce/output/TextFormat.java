@@ -0,0 +1,84 @@
+package com.ecommerce.output;
+
+import com.ecommerce.model.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free number formatting into a StringBuilder
+ * Produces the same text as the String.format patterns it replaces
+ * ("%.0f", "%.1f", "%.2f") for the money and weight values used in documents
+ */
+public final class TextFormat {
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000};
+
+    private TextFormat() {
+    }
+
+    /**
+     * Same text as {@link Money#format(long)}.
+     */
+    public static void appendMoney(StringBuilder out, long amount) {
+        if (amount % Money.MINOR_PER_MAJOR == 0) {
+            out.append(amount / Money.MINOR_PER_MAJOR);
+        } else {
+            appendMoneyFixed(out, amount);
+        }
+    }
+
+    /**
+     * Same text as {@link Money#formatFixed(long)}.
+     */
+    public static void appendMoneyFixed(StringBuilder out, long amount) {
+        long abs = Math.abs(amount);
+        long minor = abs % Money.MINOR_PER_MAJOR;
+        if (amount < 0) {
+            out.append('-');
+        }
+        out.append(abs / Money.MINOR_PER_MAJOR).append(minor < 10 ? ".0" : ".").append(minor);
+    }
+
+    /**
+     * Appends the value rounded half-up to the given number of decimals (0 to 3).
+     */
+    public static void appendFixed(StringBuilder out, double value, int decimals) {
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = scaleHalfUp(Math.abs(value), scale, decimals);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > fraction && digit > 1; digit /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+
+    private static long scaleHalfUp(double value, long scale, int decimals) {
+        double scaled = value * scale;
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) > 1e-6) {
+            return Math.round(scaled);
+        }
+        // Too close to a tie for the multiplication to decide; round the shortest decimal
+        // representation half-up the way Formatter does
+        return BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Appends a weight in grams below 1kg ("200g") and in kg with one decimal otherwise ("15.4kg").
+     */
+    public static void appendWeight(StringBuilder out, double weightKg) {
+        if (weightKg < 1.0) {
+            appendFixed(out, weightKg * 1000, 0);
+            out.append('g');
+        } else {
+            appendFixed(out, weightKg, 1);
+            out.append("kg");
+        }
+    }
+}
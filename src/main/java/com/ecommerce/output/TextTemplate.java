@@ -0,0 +1,72 @@
+package com.ecommerce.output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text template compiled once into literal segments and field slots
+ * Rendering appends each literal and asks the caller to append each field straight
+ * into the target StringBuilder, so nothing is parsed or allocated per render
+ */
+public final class TextTemplate {
+    /**
+     * Supplies the value of a field by appending it to the output
+     */
+    public interface Fields {
+        void appendField(int field, StringBuilder out);
+    }
+
+    private final String[] literals;
+    private final int[] fields;
+
+    private TextTemplate(String[] literals, int[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    /**
+     * Compiles a pattern such as {@code "{quantity}x {name}\n"}. Each placeholder must be
+     * one of {@code fieldNames}; its position in that list is the field number passed
+     * to {@link Fields#appendField}.
+     */
+    public static TextTemplate compile(String pattern, String... fieldNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+        int literalStart = 0;
+        int open = pattern.indexOf('{');
+        while (open >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + pattern);
+            }
+            literals.add(pattern.substring(literalStart, open));
+            fields.add(fieldIndex(pattern.substring(open + 1, close), fieldNames, pattern));
+            literalStart = close + 1;
+            open = pattern.indexOf('{', literalStart);
+        }
+        literals.add(pattern.substring(literalStart));
+
+        int[] fieldArray = new int[fields.size()];
+        for (int i = 0; i < fieldArray.length; i++) {
+            fieldArray[i] = fields.get(i);
+        }
+        return new TextTemplate(literals.toArray(new String[0]), fieldArray);
+    }
+
+    public void render(StringBuilder out, Fields values) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            values.appendField(fields[i], out);
+        }
+        out.append(literals[fields.length]);
+    }
+
+    private static int fieldIndex(String name, String[] fieldNames, String pattern) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (fieldNames[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown placeholder {" + name + "} in template: " + pattern);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.promotion;
+
+import com.ecommerce.model.Money;
+
+/**
+ * For every {@code buy} units of a targeted product, {@code free} more units of it are free
+ * e.g. buy 2 get 1 makes every third unit free
+ */
+public class BuyXGetY extends LinePromotion {
+    private final int buy;
+    private final int free;
+
+    public BuyXGetY(String name, PromotionTarget target, int buy, int free) {
+        super(name, target);
+        if (buy <= 0 || free <= 0) {
+            throw new IllegalArgumentException("Buy and free quantities must be positive");
+        }
+        this.buy = buy;
+        this.free = free;
+    }
+
+    public int getBuy() {
+        return buy;
+    }
+
+    public int getFree() {
+        return free;
+    }
+
+    @Override
+    public long discount(int quantity, long unitPrice, long lineTotal) {
+        int freeUnits = quantity / (buy + free) * free;
+        return Money.times(unitPrice, freeUnits);
+    }
+}
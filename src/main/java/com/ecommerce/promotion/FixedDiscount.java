@@ -0,0 +1,30 @@
+package com.ecommerce.promotion;
+
+import com.ecommerce.model.Money;
+
+/**
+ * Takes a fixed amount off each targeted unit, never taking a unit below zero
+ */
+public class FixedDiscount extends LinePromotion {
+    private final long amountPerUnit;
+
+    /**
+     * @param amountPerUnit discount per unit in minor units
+     */
+    public FixedDiscount(String name, PromotionTarget target, long amountPerUnit) {
+        super(name, target);
+        if (amountPerUnit <= 0) {
+            throw new IllegalArgumentException("Discount amount must be positive");
+        }
+        this.amountPerUnit = amountPerUnit;
+    }
+
+    public long getAmountPerUnit() {
+        return amountPerUnit;
+    }
+
+    @Override
+    public long discount(int quantity, long unitPrice, long lineTotal) {
+        return Money.times(Math.min(amountPerUnit, unitPrice), quantity);
+    }
+}
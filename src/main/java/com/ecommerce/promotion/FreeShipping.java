@@ -0,0 +1,23 @@
+package com.ecommerce.promotion;
+
+/**
+ * Waives shipping on orders whose discounted merchandise total reaches the threshold
+ */
+public final class FreeShipping extends Promotion {
+    private final long threshold;
+
+    /**
+     * @param threshold minimum discounted merchandise total in minor units
+     */
+    public FreeShipping(String name, long threshold) {
+        super(name);
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative");
+        }
+        this.threshold = threshold;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+}
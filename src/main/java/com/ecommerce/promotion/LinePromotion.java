@@ -0,0 +1,24 @@
+package com.ecommerce.promotion;
+
+/**
+ * Promotion that discounts individual cart lines of its target products
+ */
+public abstract class LinePromotion extends Promotion {
+    private final PromotionTarget target;
+
+    protected LinePromotion(String name, PromotionTarget target) {
+        super(name);
+        this.target = target;
+    }
+
+    public PromotionTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * @param unitPrice price of one unit in minor units
+     * @param lineTotal {@code unitPrice * quantity}
+     * @return discount on the line in minor units, never more than {@code lineTotal}
+     */
+    public abstract long discount(int quantity, long unitPrice, long lineTotal);
+}
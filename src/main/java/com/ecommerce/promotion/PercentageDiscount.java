@@ -0,0 +1,25 @@
+package com.ecommerce.promotion;
+
+/**
+ * Takes a percentage off every targeted line, rounded half up to the minor unit
+ */
+public class PercentageDiscount extends LinePromotion {
+    private final int percent;
+
+    public PercentageDiscount(String name, PromotionTarget target, int percent) {
+        super(name, target);
+        if (percent <= 0 || percent > 100) {
+            throw new IllegalArgumentException("Percentage must be between 1 and 100");
+        }
+        this.percent = percent;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    @Override
+    public long discount(int quantity, long unitPrice, long lineTotal) {
+        return (Math.multiplyExact(lineTotal, percent) + 50) / 100;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.promotion;
+
+/**
+ * Base class for all promotions
+ * Promotions are immutable; activating a set of them compiles a PromotionPlan
+ * The plan only knows line discounts and free shipping, so outside this package new
+ * promotions extend LinePromotion rather than this class
+ */
+public abstract class Promotion {
+    private final String name;
+
+    Promotion(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.promotion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds the active promotions and the plan compiled from them
+ * Activating a new set compiles it off to the side and swaps the plan in with one
+ * volatile write, so pricing never waits on a promotion change
+ */
+public class PromotionEngine {
+    private volatile PromotionPlan plan = PromotionPlan.EMPTY;
+    private List<Promotion> active = Collections.emptyList();
+
+    /**
+     * Replaces the active promotions.
+     *
+     * @throws IllegalArgumentException if a promotion is of a type the plan cannot
+     *         evaluate; the previous promotions stay active
+     */
+    public synchronized void activate(Collection<? extends Promotion> promotions) {
+        List<Promotion> snapshot = Collections.unmodifiableList(new ArrayList<>(promotions));
+        plan = PromotionPlan.compile(snapshot);
+        active = snapshot;
+    }
+
+    public PromotionPlan getPlan() {
+        return plan;
+    }
+
+    public synchronized List<Promotion> getActive() {
+        return active;
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.promotion;
+
+import com.ecommerce.catalog.ProductType;
+import com.ecommerce.model.Product;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Active promotions compiled for evaluation by product
+ * Line promotions are indexed by SKU (open addressing over primitive longs), by
+ * category and as catch-alls, so a cart line only looks at the rules that can apply
+ * to it. Free shipping thresholds collapse to the lowest one. When several line
+ * promotions match, the line gets the single largest discount; they do not stack.
+ * Versions come from one sequence shared by every engine, so cached pricing can tell
+ * plans apart even across engines.
+ */
+public final class PromotionPlan {
+    private static final long EMPTY_SKU = 0;
+    private static final LinePromotion[] NONE = new LinePromotion[0];
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    static final PromotionPlan EMPTY = compile(0, new ArrayList<>());
+
+    private final long version;
+    private final long[] skus;
+    private final LinePromotion[][] bySku;
+    private final LinePromotion[][] byCategory;
+    private final LinePromotion[] everywhere;
+    private final long freeShippingThreshold;
+    private final boolean hasLinePromotions;
+
+    private PromotionPlan(long version, long[] skus, LinePromotion[][] bySku, LinePromotion[][] byCategory,
+                          LinePromotion[] everywhere, long freeShippingThreshold, boolean hasLinePromotions) {
+        this.version = version;
+        this.skus = skus;
+        this.bySku = bySku;
+        this.byCategory = byCategory;
+        this.everywhere = everywhere;
+        this.freeShippingThreshold = freeShippingThreshold;
+        this.hasLinePromotions = hasLinePromotions;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a promotion is of a type the plan cannot evaluate
+     */
+    static PromotionPlan compile(Collection<? extends Promotion> promotions) {
+        return compile(VERSION_SEQUENCE.incrementAndGet(), promotions);
+    }
+
+    private static PromotionPlan compile(long version, Collection<? extends Promotion> promotions) {
+        Map<Long, List<LinePromotion>> skuRules = new HashMap<>();
+        List<List<LinePromotion>> categoryRules = new ArrayList<>();
+        for (int i = 0; i < ProductType.values().length; i++) {
+            categoryRules.add(new ArrayList<>());
+        }
+        List<LinePromotion> globalRules = new ArrayList<>();
+        long threshold = Long.MAX_VALUE;
+
+        for (Promotion promotion : promotions) {
+            if (promotion instanceof FreeShipping) {
+                threshold = Math.min(threshold, ((FreeShipping) promotion).getThreshold());
+                continue;
+            }
+            if (!(promotion instanceof LinePromotion)) {
+                throw new IllegalArgumentException("Unsupported promotion type "
+                                                   + promotion.getClass().getName() + ": " + promotion);
+            }
+            LinePromotion rule = (LinePromotion) promotion;
+            PromotionTarget target = rule.getTarget();
+            if (target.getSkus() != null) {
+                for (long sku : target.getSkus()) {
+                    skuRules.computeIfAbsent(sku, key -> new ArrayList<>()).add(rule);
+                }
+            } else if (target.getCategory() != null) {
+                categoryRules.get(target.getCategory().ordinal()).add(rule);
+            } else {
+                globalRules.add(rule);
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(skuRules.size() * 2, 8) - 1) << 1;
+        long[] skus = new long[capacity];
+        LinePromotion[][] bySku = new LinePromotion[capacity][];
+        for (Map.Entry<Long, List<LinePromotion>> entry : skuRules.entrySet()) {
+            long sku = entry.getKey();
+            int slot = slotOf(sku, capacity - 1);
+            while (skus[slot] != EMPTY_SKU) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            skus[slot] = sku;
+            bySku[slot] = entry.getValue().toArray(NONE);
+        }
+
+        LinePromotion[][] byCategory = new LinePromotion[categoryRules.size()][];
+        boolean hasCategoryRules = false;
+        for (int i = 0; i < byCategory.length; i++) {
+            byCategory[i] = categoryRules.get(i).toArray(NONE);
+            hasCategoryRules |= byCategory[i].length > 0;
+        }
+
+        boolean hasLinePromotions = !skuRules.isEmpty() || hasCategoryRules || !globalRules.isEmpty();
+        return new PromotionPlan(version, skus, bySku, byCategory, globalRules.toArray(NONE),
+                                 threshold, hasLinePromotions);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the best discount in minor units for the line, at most {@code unitPrice * quantity}
+     */
+    public long lineDiscount(Product product, int quantity, long unitPrice) {
+        if (!hasLinePromotions) {
+            return 0;
+        }
+        long lineTotal = Math.multiplyExact(unitPrice, quantity);
+        long best = best(everywhere, 0, quantity, unitPrice, lineTotal);
+        best = best(byCategory[ProductType.of(product).ordinal()], best, quantity, unitPrice, lineTotal);
+        best = best(rulesFor(product.getSku()), best, quantity, unitPrice, lineTotal);
+        return Math.min(best, lineTotal);
+    }
+
+    /**
+     * @param merchandiseTotal order total after discounts, before shipping
+     */
+    public boolean shipsFree(long merchandiseTotal) {
+        return merchandiseTotal >= freeShippingThreshold;
+    }
+
+    private LinePromotion[] rulesFor(long sku) {
+        int mask = skus.length - 1;
+        for (int slot = slotOf(sku, mask); ; slot = (slot + 1) & mask) {
+            if (skus[slot] == sku) {
+                return bySku[slot];
+            }
+            if (skus[slot] == EMPTY_SKU) {
+                return NONE;
+            }
+        }
+    }
+
+    private static long best(LinePromotion[] rules, long best, int quantity, long unitPrice, long lineTotal) {
+        for (LinePromotion rule : rules) {
+            best = Math.max(best, rule.discount(quantity, unitPrice, lineTotal));
+        }
+        return best;
+    }
+
+    private static int slotOf(long sku, int mask) {
+        long h = sku * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.promotion;
+
+import com.ecommerce.catalog.ProductType;
+import com.ecommerce.model.Product;
+
+/**
+ * Which products a line promotion applies to: listed SKUs, one category, or everything
+ */
+public final class PromotionTarget {
+    private static final PromotionTarget EVERYTHING = new PromotionTarget(null, null);
+
+    private final long[] skus;
+    private final ProductType category;
+
+    private PromotionTarget(long[] skus, ProductType category) {
+        this.skus = skus;
+        this.category = category;
+    }
+
+    public static PromotionTarget products(Product... products) {
+        long[] skus = new long[products.length];
+        for (int i = 0; i < products.length; i++) {
+            skus[i] = products[i].getSku();
+        }
+        return skus(skus);
+    }
+
+    public static PromotionTarget skus(long... skus) {
+        if (skus.length == 0) {
+            throw new IllegalArgumentException("A product target needs at least one SKU");
+        }
+        long[] copy = skus.clone();
+        for (long sku : copy) {
+            if (sku <= 0) {
+                throw new IllegalArgumentException("Invalid SKU " + sku);
+            }
+        }
+        return new PromotionTarget(copy, null);
+    }
+
+    public static PromotionTarget category(ProductType category) {
+        return new PromotionTarget(null, category);
+    }
+
+    public static PromotionTarget everything() {
+        return EVERYTHING;
+    }
+
+    /**
+     * @return the targeted SKUs, or null if the target is not a product list
+     */
+    long[] getSkus() {
+        return skus;
+    }
+
+    /**
+     * @return the targeted category, or null if the target is not a category
+     */
+    ProductType getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.CheckoutException;
+import com.ecommerce.exception.CheckoutRejectedException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous front end over CheckoutService with bounded admission control
+ * Checkouts beyond the in-flight limit, or piling onto one hot product, fail fast
+ * with CheckoutRejectedException instead of queueing without bound
+ */
+public class AsyncCheckoutService implements AutoCloseable {
+    private final CheckoutService checkoutService;
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final int maxInFlightPerProduct;
+    private final Map<Product, Integer> inFlightByProduct;
+
+    public AsyncCheckoutService(CheckoutService checkoutService, int maxInFlight, int maxInFlightPerProduct) {
+        this(checkoutService, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()),
+             maxInFlight, maxInFlightPerProduct);
+    }
+
+    /**
+     * @param executor runs the checkouts; on Java 21+ pass
+     *                 {@code Executors.newVirtualThreadPerTaskExecutor()} to run each on a virtual thread
+     */
+    public AsyncCheckoutService(CheckoutService checkoutService, ExecutorService executor,
+                                int maxInFlight, int maxInFlightPerProduct) {
+        if (maxInFlight <= 0 || maxInFlightPerProduct <= 0) {
+            throw new IllegalArgumentException("In-flight limits must be positive");
+        }
+        this.checkoutService = checkoutService;
+        this.executor = executor;
+        this.admission = new Semaphore(maxInFlight);
+        this.maxInFlightPerProduct = maxInFlightPerProduct;
+        this.inFlightByProduct = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Submits a checkout. The cart must not be modified until the returned future completes.
+     *
+     * @return a future completed normally on success, or exceptionally with the CheckoutException
+     */
+    public CompletableFuture<Void> checkoutAsync(Customer customer, Cart cart) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        if (!admission.tryAcquire()) {
+            result.completeExceptionally(new CheckoutRejectedException("Checkout queue is full"));
+            return result;
+        }
+
+        List<Product> products = new ArrayList<>(cart.size());
+        for (CartItem item : cart.getItems()) {
+            products.add(item.getProduct());
+        }
+
+        Product hotProduct = acquireProducts(products);
+        if (hotProduct != null) {
+            admission.release();
+            result.completeExceptionally(new CheckoutRejectedException(
+                String.format("Too many concurrent checkouts for %s", hotProduct.getName())));
+            return result;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    checkoutService.checkout(customer, cart);
+                    result.complete(null);
+                } catch (CheckoutException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    releaseProducts(products, products.size());
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseProducts(products, products.size());
+            admission.release();
+            result.completeExceptionally(new CheckoutRejectedException("Checkout service is shut down"));
+        }
+        return result;
+    }
+
+    public int getAvailablePermits() {
+        return admission.availablePermits();
+    }
+
+    /**
+     * Stops accepting checkouts and waits up to a minute for running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counts this checkout against each of its products.
+     *
+     * @return the first product already at its limit (with nothing acquired), or null on success
+     */
+    private Product acquireProducts(List<Product> products) {
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (inFlightByProduct.merge(product, 1, Integer::sum) > maxInFlightPerProduct) {
+                releaseProduct(product);
+                releaseProducts(products, i);
+                return product;
+            }
+        }
+        return null;
+    }
+
+    private void releaseProducts(List<Product> products, int count) {
+        for (int i = 0; i < count; i++) {
+            releaseProduct(products.get(i));
+        }
+    }
+
+    private void releaseProduct(Product product) {
+        // Drop the entry at zero so the map only holds products with checkouts in flight
+        inFlightByProduct.computeIfPresent(product, (p, count) -> count == 1 ? null : count - 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.CheckoutException;
+import com.ecommerce.exception.InsufficientBalanceException;
+import com.ecommerce.exception.OutOfStockException;
+import com.ecommerce.exception.ProductExpiredException;
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.model.Expirable;
+import com.ecommerce.model.Product;
+
+/**
+ * Result of {@link CheckoutService#tryCheckout}: success, or a typed rejection with the
+ * offending product and quantities. Rejections carry no message or stack trace; one
+ * is only built if {@link #toException()} is called.
+ */
+public final class CheckoutOutcome {
+    /**
+     * Why a checkout ended, with the exception type {@link CheckoutService#checkout} throws for it
+     */
+    public enum Code {
+        SUCCESS(null),
+        EMPTY_CART(CheckoutException.class),
+        PRODUCT_EXPIRED(ProductExpiredException.class),
+        OUT_OF_STOCK(OutOfStockException.class),
+        INSUFFICIENT_BALANCE(InsufficientBalanceException.class),
+        SHIPPING_UNAVAILABLE(ShippingUnavailableException.class),
+        FAILED(CheckoutException.class);
+
+        private final Class<? extends CheckoutException> exceptionType;
+
+        Code(Class<? extends CheckoutException> exceptionType) {
+            this.exceptionType = exceptionType;
+        }
+
+        public Class<? extends CheckoutException> getExceptionType() {
+            return exceptionType;
+        }
+    }
+
+    static final CheckoutOutcome SUCCESS = new CheckoutOutcome(Code.SUCCESS, null, 0, 0, null);
+    static final CheckoutOutcome EMPTY_CART = new CheckoutOutcome(Code.EMPTY_CART, null, 0, 0, null);
+
+    private final Code code;
+    private final Product product;
+    private final long requested;
+    private final long available;
+    private final CheckoutException error;
+
+    private CheckoutOutcome(Code code, Product product, long requested, long available, CheckoutException error) {
+        this.code = code;
+        this.product = product;
+        this.requested = requested;
+        this.available = available;
+        this.error = error;
+    }
+
+    static CheckoutOutcome productExpired(Product product) {
+        return new CheckoutOutcome(Code.PRODUCT_EXPIRED, product, 0, 0, null);
+    }
+
+    static CheckoutOutcome outOfStock(Product product, int requested, int available) {
+        return new CheckoutOutcome(Code.OUT_OF_STOCK, product, requested, available, null);
+    }
+
+    static CheckoutOutcome insufficientBalance(long required, long available) {
+        return new CheckoutOutcome(Code.INSUFFICIENT_BALANCE, null, required, available, null);
+    }
+
+    /**
+     * Wraps a rejection raised further down (shipping, reservation or journal), keeping the exception itself.
+     */
+    static CheckoutOutcome rejected(CheckoutException error) {
+        if (error instanceof OutOfStockException) {
+            OutOfStockException outOfStock = (OutOfStockException) error;
+            return new CheckoutOutcome(Code.OUT_OF_STOCK, outOfStock.getProduct(),
+                                       outOfStock.getRequested(), outOfStock.getAvailable(), error);
+        }
+        if (error instanceof InsufficientBalanceException) {
+            InsufficientBalanceException balance = (InsufficientBalanceException) error;
+            return new CheckoutOutcome(Code.INSUFFICIENT_BALANCE, null,
+                                       balance.getRequired(), balance.getAvailable(), error);
+        }
+        if (error instanceof ProductExpiredException) {
+            return new CheckoutOutcome(Code.PRODUCT_EXPIRED, ((ProductExpiredException) error).getProduct(),
+                                       0, 0, error);
+        }
+        if (error instanceof ShippingUnavailableException) {
+            return new CheckoutOutcome(Code.SHIPPING_UNAVAILABLE, null, 0, 0, error);
+        }
+        return new CheckoutOutcome(Code.FAILED, null, 0, 0, error);
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
+    public boolean isSuccess() {
+        return code == Code.SUCCESS;
+    }
+
+    /**
+     * @return the expired or out of stock product, otherwise null
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * @return units requested when out of stock, order total in minor units when the balance was short
+     */
+    public long getRequested() {
+        return requested;
+    }
+
+    /**
+     * @return units left when out of stock, customer balance in minor units when the balance was short
+     */
+    public long getAvailable() {
+        return available;
+    }
+
+    /**
+     * @return the equivalent exception, or null on success
+     */
+    public CheckoutException toException() {
+        if (error != null) {
+            return error;
+        }
+        switch (code) {
+            case SUCCESS:
+                return null;
+            case EMPTY_CART:
+                return new CheckoutException("Cart is empty");
+            case PRODUCT_EXPIRED:
+                return new ProductExpiredException(product, ((Expirable) product).getExpiryDate());
+            case OUT_OF_STOCK:
+                return new OutOfStockException(product, (int) available, (int) requested);
+            case INSUFFICIENT_BALANCE:
+                return new InsufficientBalanceException(requested, available);
+            default:
+                throw new IllegalStateException("No exception recorded for " + code);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "SUCCESS" : code + " (" + toException().getMessage() + ")";
+    }
+}
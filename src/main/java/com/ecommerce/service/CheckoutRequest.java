@@ -0,0 +1,25 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.Customer;
+
+/**
+ * One order submitted to a batch checkout
+ */
+public class CheckoutRequest {
+    private final Customer customer;
+    private final Cart cart;
+
+    public CheckoutRequest(Customer customer, Cart cart) {
+        this.customer = customer;
+        this.cart = cart;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public Cart getCart() {
+        return cart;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.CheckoutException;
+
+/**
+ * Outcome of one order in a batch checkout: success, or the exception that rejected it
+ */
+public class CheckoutResult {
+    private final CheckoutRequest request;
+    private final CheckoutException error;
+
+    private CheckoutResult(CheckoutRequest request, CheckoutException error) {
+        this.request = request;
+        this.error = error;
+    }
+
+    public static CheckoutResult success(CheckoutRequest request) {
+        return new CheckoutResult(request, null);
+    }
+
+    public static CheckoutResult failure(CheckoutRequest request, CheckoutException error) {
+        return new CheckoutResult(request, error);
+    }
+
+    public CheckoutRequest getRequest() {
+        return request;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the rejection, or null if the order succeeded
+     */
+    public CheckoutException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "SUCCESS" : String.format("FAILED (%s: %s)",
+            error.getClass().getSimpleName(), error.getMessage());
+    }
+}
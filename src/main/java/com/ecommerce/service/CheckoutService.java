@@ -1,123 +1,429 @@
 package com.ecommerce.service;
 
 import com.ecommerce.exception.*;
+import com.ecommerce.inventory.Reservation;
+import com.ecommerce.inventory.ReservationManager;
+import com.ecommerce.inventory.StockGateway;
+import com.ecommerce.journal.OrderJournal;
+import com.ecommerce.metrics.CheckoutMetrics;
+import com.ecommerce.metrics.Stage;
 import com.ecommerce.model.*;
+import com.ecommerce.output.ConsoleSink;
+import com.ecommerce.output.OutputSink;
+import com.ecommerce.output.Receipt;
+import com.ecommerce.promotion.PromotionEngine;
+import com.ecommerce.promotion.PromotionPlan;
+import com.ecommerce.shipping.RateTable;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for handling checkout process
  * Follows Single Responsibility Principle and Dependency Inversion
+ * Each checkout prices the cart once and passes that snapshot through every stage
  */
 public class CheckoutService {
     private ShippingService shippingService;
+    private ReservationManager reservationManager;
+    private OutputSink outputSink;
+    // Volatile so collaborators set after startup are seen by every checkout thread
+    private volatile OrderJournal orderJournal;
+    private volatile CheckoutMetrics metrics = CheckoutMetrics.DISABLED;
+    private volatile PriceTable priceTable = new PriceTable();
+    private volatile PromotionEngine promotionEngine = new PromotionEngine();
+    private final LongAdder failedDocuments = new LongAdder();
 
     public CheckoutService(ShippingService shippingService) {
+        this(shippingService, new ReservationManager());
+    }
+
+    public CheckoutService(ShippingService shippingService, ReservationManager reservationManager) {
+        this(shippingService, reservationManager, new ConsoleSink());
+    }
+
+    public CheckoutService(ShippingService shippingService, ReservationManager reservationManager,
+                           OutputSink outputSink) {
         this.shippingService = shippingService;
+        this.reservationManager = reservationManager;
+        this.outputSink = outputSink;
+    }
+
+    /**
+     * Makes every successful order durable in the journal before it is acknowledged.
+     */
+    public void setOrderJournal(OrderJournal orderJournal) {
+        this.orderJournal = orderJournal;
+    }
+
+    /**
+     * Prices orders from this table's current version instead of the products' list prices.
+     */
+    public void setPriceTable(PriceTable priceTable) {
+        this.priceTable = priceTable;
+    }
+
+    /**
+     * Applies this engine's active promotions when pricing orders.
+     */
+    public void setPromotionEngine(PromotionEngine promotionEngine) {
+        this.promotionEngine = promotionEngine;
+    }
+
+    /**
+     * Records stage timings and rejections here and in the shipping and reservation services.
+     */
+    public void setMetrics(CheckoutMetrics metrics) {
+        this.metrics = metrics;
+        shippingService.setMetrics(metrics);
+        reservationManager.setMetrics(metrics);
+    }
+
+    /**
+     * @return shipment notices and receipts of committed orders the output sink did not accept
+     */
+    public long getFailedDocuments() {
+        return failedDocuments.sum();
     }
 
     public void checkout(Customer customer, Cart cart) throws CheckoutException {
-        validateCheckout(customer, cart);
-        
-        List<Shippable> shippableItems = collectShippableItems(cart);
-        double subtotal = cart.getSubtotal();
-        double shippingFees = shippingService.calculateShippingCost(shippableItems);
-        double totalAmount = subtotal + shippingFees;
-
-        // Process payment
-        customer.deductBalance(totalAmount);
-        
-        // Update product quantities
-        updateProductQuantities(cart);
-        
-        // Process shipping
-        shippingService.processShipment(shippableItems);
-        
-        // Print receipt
-        printReceipt(cart, subtotal, shippingFees, totalAmount, customer.getBalance());
-        
-        // Clear cart after successful checkout
-        cart.clear();
+        CheckoutOutcome outcome = tryCheckout(customer, cart);
+        if (!outcome.isSuccess()) {
+            throw outcome.toException();
+        }
     }
 
-    private void validateCheckout(Customer customer, Cart cart) throws CheckoutException {
-        if (cart.isEmpty()) {
-            throw new CheckoutException("Cart is empty");
+    /**
+     * Same as {@link #checkout} but reports rejections as a typed outcome instead of
+     * throwing, so a rejected order costs no message formatting or stack trace.
+     */
+    public CheckoutOutcome tryCheckout(Customer customer, Cart cart) {
+        long start = metrics.now();
+        CheckoutOutcome outcome = processCheckout(customer, cart);
+        if (outcome.isSuccess()) {
+            metrics.recordStage(Stage.TOTAL, start);
+        } else {
+            metrics.recordRejection(outcome.getCode().getExceptionType());
         }
+        return outcome;
+    }
 
-        // Check for expired products and stock availability
-        for (CartItem item : cart.getItems()) {
-            Product product = item.getProduct();
-            int requestedQuantity = item.getQuantity();
+    private CheckoutOutcome processCheckout(Customer customer, Cart cart) {
+        long stageStart = metrics.now();
+        PricingSnapshot pricing;
+        try {
+            pricing = priceCart(cart);
+        } catch (ShippingUnavailableException e) {
+            return CheckoutOutcome.rejected(e);
+        }
+        metrics.recordStage(Stage.PRICING, stageStart);
 
-            // Check if product is expired
-            if (product instanceof Expirable) {
-                Expirable expirableProduct = (Expirable) product;
-                if (expirableProduct.isExpired()) {
-                    throw new ProductExpiredException(
-                        String.format("Product %s has expired on %s", 
-                                    product.getName(), expirableProduct.getExpiryDate()));
+        stageStart = metrics.now();
+        CheckoutOutcome rejection = validate(customer, pricing);
+        if (rejection != null) {
+            return rejection;
+        }
+        metrics.recordStage(Stage.VALIDATION, stageStart);
+
+        try {
+            // Reserve stock and payment together; either all of it is held or none
+            Reservation reservation = reservationManager.reserve(customer, pricing.getItems(), pricing.getTotal());
+
+            stageStart = metrics.now();
+            reservationManager.commit(reservation);
+            recordOrder(customer, pricing);
+            metrics.recordStage(Stage.COMMIT, stageStart);
+        } catch (CheckoutException e) {
+            return CheckoutOutcome.rejected(e);
+        }
+
+        completeOrder(customer, cart, pricing);
+        return CheckoutOutcome.SUCCESS;
+    }
+
+    /**
+     * Checks out many orders in one call. Stock demand is summed per product and
+     * taken with one reservation per product; only orders touching a product whose
+     * combined demand cannot be met fall back to the regular per-order checkout.
+     *
+     * @return one result per request, in request order
+     */
+    public List<CheckoutResult> checkoutBatch(List<CheckoutRequest> requests) {
+        CheckoutResult[] results = new CheckoutResult[requests.size()];
+        PricingSnapshot[] pricings = new PricingSnapshot[requests.size()];
+        Map<Product, Long> demand = new HashMap<>();
+        Set<Cart> seenCarts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // Price and validate every order, summing the stock each valid order needs
+        for (int i = 0; i < requests.size(); i++) {
+            CheckoutRequest request = requests.get(i);
+            if (!seenCarts.add(request.getCart())) {
+                // A second submission of the same cart would be held and charged twice
+                CheckoutException duplicate = new CheckoutException("Cart submitted more than once in batch");
+                metrics.recordRejection(duplicate);
+                results[i] = CheckoutResult.failure(request, duplicate);
+                continue;
+            }
+            PricingSnapshot pricing;
+            try {
+                pricing = priceCart(request.getCart());
+            } catch (ShippingUnavailableException e) {
+                metrics.recordRejection(e);
+                results[i] = CheckoutResult.failure(request, e);
+                continue;
+            }
+            CheckoutOutcome rejection = validate(request.getCustomer(), pricing);
+            if (rejection != null) {
+                metrics.recordRejection(rejection.getCode().getExceptionType());
+                results[i] = CheckoutResult.failure(request, rejection.toException());
+                continue;
+            }
+            pricings[i] = pricing;
+            for (CartItem item : pricing.getItems()) {
+                demand.merge(item.getProduct(), (long) item.getQuantity(), Math::addExact);
+            }
+        }
+
+        // One reservation per product for the combined demand, in SKU order
+        List<Product> products = new ArrayList<>(demand.keySet());
+        products.sort(Comparator.comparingLong(Product::getSku));
+        Set<Product> held = new HashSet<>();
+        try {
+            for (Product product : products) {
+                long quantity = demand.get(product);
+                // Demand beyond one reservation's range is left to the per-order fallback
+                if (quantity <= Integer.MAX_VALUE && stockGateway().tryReserve(product, (int) quantity)) {
+                    held.add(product);
                 }
             }
+        } catch (RuntimeException e) {
+            // The stock owner failed part way; give back what the batch already holds
+            for (Product product : held) {
+                stockGateway().release(product, demand.get(product).intValue());
+            }
+            throw e;
+        }
 
-            // Check stock availability
-            if (!product.isInStock(requestedQuantity)) {
-                throw new OutOfStockException(
-                    String.format("Insufficient stock for %s. Available: %d, Requested: %d",
-                                product.getName(), product.getAvailableQuantity(), requestedQuantity));
+        // Orders needing a product that could not be bulk-held give their share back
+        boolean[] contended = new boolean[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            if (pricings[i] != null && !allHeld(pricings[i], held)) {
+                releaseHeldStock(pricings[i], held);
+                contended[i] = true;
             }
         }
 
-        // Check customer balance
-        double subtotal = cart.getSubtotal();
-        List<Shippable> shippableItems = collectShippableItems(cart);
-        double shippingFees = shippingService.calculateShippingCost(shippableItems);
-        double totalAmount = subtotal + shippingFees;
+        // Settle uncontended orders: their stock is already taken, so only payment remains
+        for (int i = 0; i < requests.size(); i++) {
+            if (pricings[i] == null || contended[i]) {
+                continue;
+            }
+            CheckoutRequest request = requests.get(i);
+            PricingSnapshot pricing = pricings[i];
+            if (request.getCustomer().tryDeductBalance(pricing.getTotal())) {
+                try {
+                    recordOrder(request.getCustomer(), pricing);
+                    completeOrder(request.getCustomer(), request.getCart(), pricing);
+                    results[i] = CheckoutResult.success(request);
+                } catch (CheckoutException e) {
+                    metrics.recordRejection(e);
+                    results[i] = CheckoutResult.failure(request, e);
+                }
+            } else {
+                releaseHeldStock(pricing, held);
+                InsufficientBalanceException rejection =
+                    new InsufficientBalanceException(pricing.getTotal(), request.getCustomer().getBalance());
+                metrics.recordRejection(rejection);
+                results[i] = CheckoutResult.failure(request, rejection);
+            }
+        }
 
-        if (!customer.hasEnoughBalance(totalAmount)) {
-            throw new InsufficientBalanceException(
-                String.format("Insufficient balance. Required: %.2f, Available: %.2f",
-                            totalAmount, customer.getBalance()));
+        // Contended orders compete for the remaining stock one at a time
+        for (int i = 0; i < requests.size(); i++) {
+            if (!contended[i]) {
+                continue;
+            }
+            CheckoutRequest request = requests.get(i);
+            try {
+                checkout(request.getCustomer(), request.getCart());
+                results[i] = CheckoutResult.success(request);
+            } catch (CheckoutException e) {
+                results[i] = CheckoutResult.failure(request, e);
+            }
         }
+
+        return Arrays.asList(results);
     }
 
-    private List<Shippable> collectShippableItems(Cart cart) {
-        List<Shippable> shippableItems = new ArrayList<>();
-        
-        for (CartItem item : cart.getItems()) {
+    /**
+     * Returns the cart's cached pricing, computing subtotal, weight and shipping
+     * in a single pass over the items when the cart or the prices changed since
+     * last priced. All amounts come from one price table version, promotion plan
+     * and shipping rate table.
+     *
+     * @throws ShippingUnavailableException if the rate table cannot price the shipment
+     */
+    public PricingSnapshot priceCart(Cart cart) throws ShippingUnavailableException {
+        PriceList prices = priceTable.snapshot();
+        PromotionPlan promotions = promotionEngine.getPlan();
+        RateTable rates = shippingService.getRateEngine().getTable();
+        PricingSnapshot cached = cart.getCachedPricing();
+        if (cached != null && cached.getPriceVersion() == prices.getVersion()
+                && cached.getPromotionVersion() == promotions.getVersion()
+                && cached.getRateVersion() == rates.getVersion()) {
+            return cached;
+        }
+
+        // The snapshot owns the only copy of the items, so later cart edits cannot change it
+        List<CartItem> items = new ArrayList<>(cart.getItems());
+        long[] lineTotals = new long[items.size()];
+        List<ShipmentLine> shipmentLines = new ArrayList<>();
+        long subtotal = 0;
+        long discount = 0;
+        double totalWeight = 0.0;
+
+        for (int i = 0; i < lineTotals.length; i++) {
+            CartItem item = items.get(i);
             Product product = item.getProduct();
+            long unitPrice = prices.priceOf(product);
+            lineTotals[i] = Money.times(unitPrice, item.getQuantity());
+            subtotal = Money.add(subtotal, lineTotals[i]);
+            discount = Money.add(discount, promotions.lineDiscount(product, item.getQuantity(), unitPrice));
             if (product instanceof Shippable) {
-                // Add multiple instances for quantity
-                for (int i = 0; i < item.getQuantity(); i++) {
-                    shippableItems.add((Shippable) product);
-                }
+                // One weighted line per product rather than one entry per unit
+                ShipmentLine line = new ShipmentLine((Shippable) product, item.getQuantity());
+                shipmentLines.add(line);
+                totalWeight += line.getTotalWeight();
             }
         }
-        
-        return shippableItems;
+
+        // The notice plans its parcels from the same table, so they add up to this fee
+        boolean shippingWaived = promotions.shipsFree(subtotal - discount);
+        int zone = cart.getShippingZone();
+        long shippingFees = shippingWaived ? 0 : shippingService.calculateShippingCost(shipmentLines, zone, rates);
+        PricingSnapshot pricing = new PricingSnapshot(cart.getVersion(), prices.getVersion(), promotions.getVersion(),
+                                                      rates, zone, items, lineTotals, shipmentLines, subtotal,
+                                                      discount, totalWeight, shippingFees, shippingWaived);
+        cart.cachePricing(pricing);
+        return pricing;
     }
 
-    private void updateProductQuantities(Cart cart) {
-        for (CartItem item : cart.getItems()) {
-            item.getProduct().reduceQuantity(item.getQuantity());
+    /**
+     * Publishes the shipment notice and receipt of a committed order and clears the cart.
+     * The order already stands, so a sink failure is counted rather than thrown.
+     */
+    private void completeOrder(Customer customer, Cart cart, PricingSnapshot pricing) {
+        try {
+            // Process shipping
+            shippingService.processShipment(pricing.getShipmentLines(), pricing.getRates(),
+                                            pricing.getShippingZone(), pricing.isShippingWaived());
+        } catch (RuntimeException e) {
+            documentFailed("shipment notice", e);
+        }
+
+        // Publish receipt
+        long stageStart = metrics.now();
+        try {
+            outputSink.publish(Receipt.from(pricing, customer.getBalance()));
+        } catch (RuntimeException e) {
+            documentFailed("receipt", e);
         }
+        metrics.recordStage(Stage.RECEIPT, stageStart);
+
+        // Clear cart after successful checkout
+        cart.clear();
+    }
+
+    private void documentFailed(String document, RuntimeException e) {
+        failedDocuments.increment();
+        System.err.println("Failed to publish " + document + " for a committed order: " + e);
     }
 
-    private void printReceipt(Cart cart, double subtotal, double shippingFees, 
-                            double totalAmount, double remainingBalance) {
-        System.out.println("** Checkout receipt **");
-        
-        for (CartItem item : cart.getItems()) {
-            System.out.println(String.format("%dx %s %.0f", 
-                item.getQuantity(), 
-                item.getProduct().getName(), 
-                item.getTotalPrice()));
+    /**
+     * Appends the committed order to the journal, undoing it if that fails.
+     */
+    private void recordOrder(Customer customer, PricingSnapshot pricing) throws CheckoutException {
+        OrderJournal journal = orderJournal;
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(customer, pricing.getTotal(), pricing.getItems());
+        } catch (IOException | IllegalArgumentException e) {
+            // IllegalArgumentException: a product or customer name too long to journal
+            for (CartItem item : pricing.getItems()) {
+                stockGateway().release(item.getProduct(), item.getQuantity());
+            }
+            customer.addBalance(pricing.getTotal());
+            throw new CheckoutException("Could not record order: " + e.getMessage(), e);
+        }
+    }
+
+    private StockGateway stockGateway() {
+        return reservationManager.getStockGateway();
+    }
+
+    private boolean allHeld(PricingSnapshot pricing, Set<Product> held) {
+        for (CartItem item : pricing.getItems()) {
+            if (!held.contains(item.getProduct())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void releaseHeldStock(PricingSnapshot pricing, Set<Product> held) {
+        for (CartItem item : pricing.getItems()) {
+            if (held.contains(item.getProduct())) {
+                stockGateway().release(item.getProduct(), item.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * @return the first reason the order cannot go through, or null if it can
+     */
+    private CheckoutOutcome validate(Customer customer, PricingSnapshot pricing) {
+        if (pricing.getItems().isEmpty()) {
+            return CheckoutOutcome.EMPTY_CART;
+        }
+
+        // Check for expired products and stock availability
+        for (CartItem item : pricing.getItems()) {
+            Product product = item.getProduct();
+            int requestedQuantity = item.getQuantity();
+
+            // Check if product is expired
+            if (product instanceof Expirable && ((Expirable) product).isExpired()) {
+                return CheckoutOutcome.productExpired(product);
+            }
+
+            // Check stock availability with the product's stock owner
+            int available;
+            try {
+                available = reservationManager.available(product);
+            } catch (UnknownProductException e) {
+                return CheckoutOutcome.rejected(e);
+            }
+            if (available < requestedQuantity) {
+                return CheckoutOutcome.outOfStock(product, requestedQuantity, available);
+            }
+        }
+
+        // Check customer balance
+        long totalAmount = pricing.getTotal();
+        if (!customer.hasEnoughBalance(totalAmount)) {
+            return CheckoutOutcome.insufficientBalance(totalAmount, customer.getBalance());
         }
-        
-        System.out.println("----------------------");
-        System.out.println(String.format("Subtotal %.0f", subtotal));
-        System.out.println(String.format("Shipping %.0f", shippingFees));
-        System.out.println(String.format("Amount %.0f", totalAmount));
-        System.out.println(String.format("Customer balance after payment: %.2f", remainingBalance));
+        return null;
     }
 }
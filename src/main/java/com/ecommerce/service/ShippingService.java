@@ -1,48 +1,136 @@
 package com.ecommerce.service;
 
-import com.ecommerce.model.Shippable;
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.metrics.CheckoutMetrics;
+import com.ecommerce.metrics.Stage;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.output.ConsoleSink;
+import com.ecommerce.output.OutputSink;
+import com.ecommerce.output.ShipmentNotice;
+import com.ecommerce.shipping.Parcel;
+import com.ecommerce.shipping.ParcelPlanner;
+import com.ecommerce.shipping.RateTable;
+import com.ecommerce.shipping.ShippingRateEngine;
 import java.util.List;
 
 /**
  * Service for handling shipping logistics
  * Follows Single Responsibility Principle
+ * Shipment notices are handed to an OutputSink rather than printed inline
+ * and costs are quoted by a pluggable ShippingRateEngine
+ * A shipment is charged the sum of its parcel costs; pricing costs the parcels
+ * without building them, and the full plan is only made for the shipment notice
  */
 public class ShippingService {
-    private static final double SHIPPING_RATE_PER_KG = 10.0;
-    private static final double BASE_SHIPPING_FEE = 5.0;
+    public static final int DEFAULT_ZONE = 0;
 
-    public void processShipment(List<Shippable> shippableItems) {
-        if (shippableItems.isEmpty()) {
+    private final OutputSink outputSink;
+    private final ShippingRateEngine rateEngine;
+    private final ParcelPlanner parcelPlanner;
+    private volatile CheckoutMetrics metrics = CheckoutMetrics.DISABLED;
+
+    public ShippingService() {
+        this(new ConsoleSink());
+    }
+
+    public ShippingService(OutputSink outputSink) {
+        this(outputSink, new ShippingRateEngine());
+    }
+
+    public ShippingService(OutputSink outputSink, ShippingRateEngine rateEngine) {
+        this(outputSink, rateEngine, new ParcelPlanner());
+    }
+
+    public ShippingService(OutputSink outputSink, ShippingRateEngine rateEngine, ParcelPlanner parcelPlanner) {
+        this.outputSink = outputSink;
+        this.rateEngine = rateEngine;
+        this.parcelPlanner = parcelPlanner;
+    }
+
+    public ShippingRateEngine getRateEngine() {
+        return rateEngine;
+    }
+
+    public void setMetrics(CheckoutMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Plans the parcels and publishes the shipment notice for an order priced from the
+     * table. The plan packs exactly as the quote did, so its parcel costs add up to the
+     * shipping fee charged.
+     *
+     * @param shippingWaived true if shipping is free, so the notice lists no parcel costs
+     */
+    public void processShipment(List<ShipmentLine> shipmentLines, RateTable rates, int zone,
+                                boolean shippingWaived) {
+        if (shipmentLines.isEmpty()) {
             return;
         }
 
-        System.out.println("** Shipment notice **");
-        
+        long start = metrics.now();
         double totalWeight = 0.0;
-        for (Shippable item : shippableItems) {
-            double itemWeight = item.getWeight();
-            totalWeight += itemWeight;
-            
-            // Format weight in grams if less than 1kg
-            String weightStr = itemWeight < 1.0 ? 
-                String.format("%.0fg", itemWeight * 1000) : 
-                String.format("%.1fkg", itemWeight);
-            
-            System.out.println(String.format("1x %s %s", item.getName(), weightStr));
+        for (int i = 0; i < shipmentLines.size(); i++) {
+            totalWeight += shipmentLines.get(i).getTotalWeight();
+        }
+
+        List<Parcel> parcels;
+        if (shippingWaived) {
+            parcels = parcelPlanner.plan(shipmentLines);
+        } else {
+            try {
+                parcels = parcelPlanner.plan(shipmentLines, rates, zone);
+            } catch (ShippingUnavailableException e) {
+                // The same table already quoted these parcels while pricing
+                throw new IllegalStateException("Priced shipment can no longer be quoted", e);
+            }
         }
-        
-        System.out.println(String.format("Total package weight %.1fkg", totalWeight));
+        outputSink.publish(new ShipmentNotice(shipmentLines, parcels, totalWeight, shippingWaived));
+        metrics.recordStage(Stage.SHIPMENT, start);
+    }
+
+    /**
+     * @return shipping cost in minor units to the default zone
+     */
+    public long calculateShippingCost(List<ShipmentLine> shipmentLines) throws ShippingUnavailableException {
+        return calculateShippingCost(shipmentLines, DEFAULT_ZONE);
     }
 
-    public double calculateShippingCost(List<Shippable> shippableItems) {
-        if (shippableItems.isEmpty()) {
-            return 0.0;
+    /**
+     * @return shipping cost in minor units, quoted by the rate engine for the zone
+     */
+    public long calculateShippingCost(List<ShipmentLine> shipmentLines, int zone)
+            throws ShippingUnavailableException {
+        return calculateShippingCost(shipmentLines, zone, rateEngine.getTable());
+    }
+
+    /**
+     * @return shipping cost in minor units: the sum of the costs of the parcels the lines
+     *         pack into, computed without building them
+     * @throws ShippingUnavailableException if the table has no rate for some parcel
+     */
+    public long calculateShippingCost(List<ShipmentLine> shipmentLines, int zone, RateTable rates)
+            throws ShippingUnavailableException {
+        if (shipmentLines.isEmpty()) {
+            return 0;
         }
 
-        double totalWeight = shippableItems.stream()
-                                         .mapToDouble(Shippable::getWeight)
-                                         .sum();
-        
-        return BASE_SHIPPING_FEE + (totalWeight * SHIPPING_RATE_PER_KG);
+        long start = metrics.now();
+        long cost = parcelPlanner.quote(shipmentLines, rates, zone);
+        metrics.recordStage(Stage.SHIPPING_COST, start);
+        return cost;
+    }
+
+    /**
+     * @return sum of the parcel costs in minor units, counting every copy
+     */
+    public static long totalCost(List<Parcel> parcels) {
+        long cost = 0;
+        for (int i = 0; i < parcels.size(); i++) {
+            Parcel parcel = parcels.get(i);
+            cost = Money.add(cost, Money.times(parcel.getCost(), parcel.getCopies()));
+        }
+        return cost;
     }
 }
@@ -0,0 +1,52 @@
+package com.ecommerce.session;
+
+/**
+ * A change made to a parked cart when it was revalidated on resume
+ */
+public class CartAdjustment {
+    /**
+     * Why the line changed
+     */
+    public enum Reason {
+        NOT_IN_CATALOG,
+        EXPIRED,
+        OUT_OF_STOCK,
+        QUANTITY_REDUCED
+    }
+
+    private final long sku;
+    private final Reason reason;
+    private final int savedQuantity;
+    private final int resumedQuantity;
+
+    CartAdjustment(long sku, Reason reason, int savedQuantity, int resumedQuantity) {
+        this.sku = sku;
+        this.reason = reason;
+        this.savedQuantity = savedQuantity;
+        this.resumedQuantity = resumedQuantity;
+    }
+
+    public long getSku() {
+        return sku;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public int getSavedQuantity() {
+        return savedQuantity;
+    }
+
+    /**
+     * @return quantity left in the resumed cart, 0 if the line was dropped
+     */
+    public int getResumedQuantity() {
+        return resumedQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SKU %d %s (%d -> %d)", sku, reason, savedQuantity, resumedQuantity);
+    }
+}
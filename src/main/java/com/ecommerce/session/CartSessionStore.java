@@ -0,0 +1,217 @@
+package com.ecommerce.session;
+
+import com.ecommerce.catalog.ProductCatalog;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.Expirable;
+import com.ecommerce.model.Product;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parks carts between requests, keyed by session ID, in a bounded amount of heap
+ * Carts are stored as SKU / quantity pairs and rebuilt against the catalog on resume,
+ * where stock and expiry are rechecked. Entries idle longer than the TTL are dropped;
+ * when full, a new session only displaces the least recently used one if a TinyLFU
+ * frequency sketch says it is accessed at least as often.
+ * Segment capacities add up to exactly the maximum size, so small stores get fewer
+ * segments rather than rounding every segment up to one entry.
+ */
+public class CartSessionStore {
+    private static final int MAX_SEGMENT_COUNT = 32;
+
+    private final ProductCatalog catalog;
+    private final long idleTtlNanos;
+    private final Segment[] segments;
+
+    public CartSessionStore(ProductCatalog catalog, int maximumSize, long idleTtl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (idleTtl <= 0) {
+            throw new IllegalArgumentException("Idle TTL must be positive");
+        }
+        this.catalog = catalog;
+        this.idleTtlNanos = unit.toNanos(idleTtl);
+        // A power of two no larger than the bound, so every segment holds at least one entry
+        int segmentCount = Integer.highestOneBit(Math.min(MAX_SEGMENT_COUNT, maximumSize));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int extra = i < maximumSize % segmentCount ? 1 : 0;
+            segments[i] = new Segment(maximumSize / segmentCount + extra);
+        }
+    }
+
+    /**
+     * Parks the cart under the session ID, replacing any cart saved for it before.
+     * An empty cart removes the session.
+     *
+     * @return false if the store is full and the session was not admitted
+     */
+    public boolean save(String sessionId, Cart cart) {
+        if (cart.isEmpty()) {
+            remove(sessionId);
+            return true;
+        }
+        int hash = spread(sessionId.hashCode());
+        long now = System.nanoTime();
+        return segmentFor(hash).put(sessionId, hash, StoredCart.encode(cart, now), now - idleTtlNanos);
+    }
+
+    /**
+     * Rebuilds the parked cart from current catalog products. Lines whose product is
+     * gone or expired are dropped and quantities are cut to the stock now available.
+     * The session stays parked until it is saved again or removed.
+     *
+     * @return the resumed cart, or null if there is no live session with this ID
+     */
+    public ResumedCart resume(String sessionId) {
+        int hash = spread(sessionId.hashCode());
+        long now = System.nanoTime();
+        StoredCart stored = segmentFor(hash).get(sessionId, hash, now, now - idleTtlNanos);
+        return stored == null ? null : revalidate(stored);
+    }
+
+    public void remove(String sessionId) {
+        int hash = spread(sessionId.hashCode());
+        segmentFor(hash).remove(sessionId);
+    }
+
+    /**
+     * Drops every session idle for longer than the TTL.
+     *
+     * @return number of sessions dropped
+     */
+    public int evictIdle() {
+        long cutoff = System.nanoTime() - idleTtlNanos;
+        int evicted = 0;
+        for (Segment segment : segments) {
+            evicted += segment.evictIdle(cutoff);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private ResumedCart revalidate(StoredCart stored) {
+        Cart cart = new Cart(catalog);
+        cart.setShippingZone(stored.getShippingZone());
+        List<CartAdjustment> adjustments = new ArrayList<>(0);
+
+        for (int line = 0; line < stored.lineCount(); line++) {
+            long sku = stored.skuAt(line);
+            int saved = stored.quantityAt(line);
+            Product product = catalog.get(sku);
+            if (product == null) {
+                adjustments.add(new CartAdjustment(sku, CartAdjustment.Reason.NOT_IN_CATALOG, saved, 0));
+                continue;
+            }
+            if (product instanceof Expirable && ((Expirable) product).isExpired()) {
+                adjustments.add(new CartAdjustment(sku, CartAdjustment.Reason.EXPIRED, saved, 0));
+                continue;
+            }
+
+            int quantity = Math.min(saved, catalog.available(product));
+            try {
+                if (quantity > 0) {
+                    cart.addItem(product, quantity);
+                }
+            } catch (IllegalArgumentException e) {
+                // Stock sold out between the check and the add
+                quantity = 0;
+            }
+            if (quantity == 0) {
+                adjustments.add(new CartAdjustment(sku, CartAdjustment.Reason.OUT_OF_STOCK, saved, 0));
+            } else if (quantity < saved) {
+                adjustments.add(new CartAdjustment(sku, CartAdjustment.Reason.QUANTITY_REDUCED, saved, quantity));
+            }
+        }
+        return new ResumedCart(cart, adjustments);
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * One lock-striped slice of the store: an access-ordered map, so the eldest entry
+     * is both the LRU victim and the first to go idle, plus its own frequency sketch
+     */
+    private static final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<String, StoredCart> entries;
+        private final FrequencySketch sketch;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        synchronized boolean put(String sessionId, int hash, StoredCart cart, long idleCutoff) {
+            sketch.increment(hash);
+            if (entries.containsKey(sessionId)) {
+                entries.put(sessionId, cart);
+                return true;
+            }
+
+            evictIdle(idleCutoff);
+            if (entries.size() >= capacity) {
+                Iterator<Map.Entry<String, StoredCart>> eldest = entries.entrySet().iterator();
+                String victim = eldest.next().getKey();
+                if (sketch.frequency(hash) < sketch.frequency(spread(victim.hashCode()))) {
+                    return false;
+                }
+                eldest.remove();
+            }
+            entries.put(sessionId, cart);
+            return true;
+        }
+
+        synchronized StoredCart get(String sessionId, int hash, long now, long idleCutoff) {
+            sketch.increment(hash);
+            StoredCart cart = entries.get(sessionId);
+            if (cart == null) {
+                return null;
+            }
+            if (cart.isIdleSince(idleCutoff)) {
+                entries.remove(sessionId);
+                return null;
+            }
+            cart.touch(now);
+            return cart;
+        }
+
+        synchronized void remove(String sessionId) {
+            entries.remove(sessionId);
+        }
+
+        synchronized int evictIdle(long idleCutoff) {
+            int evicted = 0;
+            Iterator<StoredCart> eldestFirst = entries.values().iterator();
+            while (eldestFirst.hasNext() && eldestFirst.next().isIdleSince(idleCutoff)) {
+                eldestFirst.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
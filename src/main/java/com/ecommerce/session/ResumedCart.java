@@ -0,0 +1,34 @@
+package com.ecommerce.session;
+
+import com.ecommerce.model.Cart;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A cart rebuilt from the session store, with the lines that had to change to
+ * match current stock and expiry
+ */
+public class ResumedCart {
+    private final Cart cart;
+    private final List<CartAdjustment> adjustments;
+
+    ResumedCart(Cart cart, List<CartAdjustment> adjustments) {
+        this.cart = cart;
+        this.adjustments = Collections.unmodifiableList(adjustments);
+    }
+
+    public Cart getCart() {
+        return cart;
+    }
+
+    public List<CartAdjustment> getAdjustments() {
+        return adjustments;
+    }
+
+    /**
+     * @return true if the cart came back exactly as it was saved
+     */
+    public boolean isUnchanged() {
+        return adjustments.isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.session;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+
+/**
+ * Compact form of an idle cart: alternating SKU / quantity longs and the shipping zone
+ * Holds no product references, so a parked cart costs a few dozen bytes and never
+ * keeps catalog objects alive
+ */
+final class StoredCart {
+    private final long[] lines;
+    private final int shippingZone;
+    private long lastAccessNanos;
+
+    private StoredCart(long[] lines, int shippingZone, long lastAccessNanos) {
+        this.lines = lines;
+        this.shippingZone = shippingZone;
+        this.lastAccessNanos = lastAccessNanos;
+    }
+
+    static StoredCart encode(Cart cart, long nowNanos) {
+        long[] lines = new long[cart.size() * 2];
+        int i = 0;
+        for (CartItem item : cart.getItems()) {
+            lines[i++] = item.getProduct().getSku();
+            lines[i++] = item.getQuantity();
+        }
+        return new StoredCart(lines, cart.getShippingZone(), nowNanos);
+    }
+
+    int lineCount() {
+        return lines.length / 2;
+    }
+
+    long skuAt(int line) {
+        return lines[line * 2];
+    }
+
+    int quantityAt(int line) {
+        return (int) lines[line * 2 + 1];
+    }
+
+    int getShippingZone() {
+        return shippingZone;
+    }
+
+    boolean isIdleSince(long cutoffNanos) {
+        return lastAccessNanos - cutoffNanos < 0;
+    }
+
+    void touch(long nowNanos) {
+        this.lastAccessNanos = nowNanos;
+    }
+}
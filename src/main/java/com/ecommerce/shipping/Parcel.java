@@ -0,0 +1,69 @@
+package com.ecommerce.shipping;
+
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.model.Shippable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Physical packages produced by consolidation: their contents, weight and carrier cost
+ * Identical packages, such as one per oversized unit, are one Parcel with a copy count;
+ * contents, weight and cost are per copy
+ */
+public class Parcel {
+    private final List<ShipmentLine> lines;
+    private final double weight;
+    private final long copies;
+    private long cost;
+
+    Parcel(double weight, long copies) {
+        this.lines = new ArrayList<>();
+        this.weight = weight;
+        this.copies = copies;
+    }
+
+    void add(Shippable item, int quantity) {
+        lines.add(new ShipmentLine(item, quantity));
+    }
+
+    void setCost(long cost) {
+        this.cost = cost;
+    }
+
+    public List<ShipmentLine> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * @return weight of one copy in kg
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return carrier cost of one copy in minor units
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * @return number of identical packages this parcel stands for
+     */
+    public long getCopies() {
+        return copies;
+    }
+
+    /**
+     * @return units in one copy
+     */
+    public int getUnitCount() {
+        int units = 0;
+        for (ShipmentLine line : lines) {
+            units += line.getQuantity();
+        }
+        return units;
+    }
+}
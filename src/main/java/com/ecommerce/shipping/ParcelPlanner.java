@@ -0,0 +1,341 @@
+package com.ecommerce.shipping;
+
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.model.Shippable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packs shipment lines into parcels under a weight limit with first-fit-decreasing
+ * Units are packed per weight class (all items of one unit weight), and identical
+ * parcels are kept as one pack with a copy count, so packing time depends on the
+ * number of distinct weights, never on unit or parcel count. Quotes cost the packs
+ * directly; only a plan for the shipment notice assigns items to parcels
+ */
+public class ParcelPlanner {
+    public static final double DEFAULT_MAX_PARCEL_WEIGHT_KG = 30.0;
+
+    private final double maxParcelWeight;
+
+    public ParcelPlanner() {
+        this(DEFAULT_MAX_PARCEL_WEIGHT_KG);
+    }
+
+    public ParcelPlanner(double maxParcelWeight) {
+        if (maxParcelWeight <= 0) {
+            throw new IllegalArgumentException("Maximum parcel weight must be positive");
+        }
+        this.maxParcelWeight = maxParcelWeight;
+    }
+
+    public double getMaxParcelWeight() {
+        return maxParcelWeight;
+    }
+
+    /**
+     * Costs the parcels {@link #plan(List, RateTable, int)} would produce without building
+     * them: each pack is quoted once and multiplied by its copies, and per-unit surcharges
+     * do not depend on packing, so they are summed straight from the lines.
+     *
+     * @return total shipping cost in minor units
+     * @throws ShippingUnavailableException if some parcel has no rate in the zone
+     */
+    public long quote(List<ShipmentLine> shipmentLines, RateTable rates, int zone)
+            throws ShippingUnavailableException {
+        List<Pack> packs = pack(WeightClasses.of(shipmentLines), false);
+        long cost = 0;
+        for (int i = 0; i < packs.size(); i++) {
+            Pack pack = packs.get(i);
+            cost = Money.add(cost, Money.times(weightCost(rates, zone, pack.weight), pack.copies));
+        }
+        for (int i = 0; i < shipmentLines.size(); i++) {
+            ShipmentLine line = shipmentLines.get(i);
+            cost = Money.add(cost, Money.times(surcharge(rates, line.getItem()), line.getQuantity()));
+        }
+        return cost;
+    }
+
+    /**
+     * Packs the lines and prices each parcel from the rate table. The parcel costs, times
+     * their copies, add up to exactly what {@link #quote} returns.
+     *
+     * @throws ShippingUnavailableException if some parcel has no rate in the zone
+     */
+    public List<Parcel> plan(List<ShipmentLine> shipmentLines, RateTable rates, int zone)
+            throws ShippingUnavailableException {
+        List<Parcel> parcels = plan(shipmentLines);
+        for (Parcel parcel : parcels) {
+            long cost = weightCost(rates, zone, parcel.getWeight());
+            for (ShipmentLine line : parcel.getLines()) {
+                cost = Money.add(cost, Money.times(surcharge(rates, line.getItem()), line.getQuantity()));
+            }
+            parcel.setCost(cost);
+        }
+        return parcels;
+    }
+
+    /**
+     * Packs the lines and assigns items to the parcels. Copies of a pack that get the
+     * same items stay one Parcel, so oversized units of one item are a single entry.
+     */
+    public List<Parcel> plan(List<ShipmentLine> shipmentLines) {
+        WeightClasses classes = WeightClasses.of(shipmentLines);
+        List<Pack> packs = pack(classes, true);
+        long[] left = classes.quantities.clone();
+        int[] head = Arrays.copyOf(classes.starts, classes.count);
+        List<Parcel> parcels = new ArrayList<>();
+
+        for (Pack pack : packs) {
+            long copiesLeft = pack.copies;
+            while (copiesLeft > 0) {
+                // Copies served entirely by the current item of every class they hold
+                long batch = copiesLeft;
+                for (int j = 0; j < pack.size; j++) {
+                    batch = Math.min(batch, left[head[pack.classes[j]]] / pack.units[j]);
+                }
+                if (batch > 0) {
+                    Parcel parcel = new Parcel(pack.weight, batch);
+                    for (int j = 0; j < pack.size; j++) {
+                        int item = head[pack.classes[j]];
+                        parcel.add(classes.items[item], (int) pack.units[j]);
+                        left[item] -= batch * pack.units[j];
+                        if (left[item] == 0) {
+                            head[pack.classes[j]]++;
+                        }
+                    }
+                    parcels.add(parcel);
+                    copiesLeft -= batch;
+                } else {
+                    // This copy runs past the end of an item and takes the rest from the next one
+                    Parcel parcel = new Parcel(pack.weight, 1);
+                    for (int j = 0; j < pack.size; j++) {
+                        long needed = pack.units[j];
+                        while (needed > 0) {
+                            int item = head[pack.classes[j]];
+                            long taken = Math.min(needed, left[item]);
+                            parcel.add(classes.items[item], (int) taken);
+                            left[item] -= taken;
+                            needed -= taken;
+                            if (left[item] == 0) {
+                                head[pack.classes[j]]++;
+                            }
+                        }
+                    }
+                    parcels.add(parcel);
+                    copiesLeft--;
+                }
+            }
+        }
+        return parcels;
+    }
+
+    /**
+     * First-fit-decreasing over weight classes. Every copy of a pack has the same free
+     * room, so a class tops them up alike; a pack only splits where the class runs out.
+     *
+     * @return packs in the order their parcels were opened
+     */
+    private List<Pack> pack(WeightClasses classes, boolean trackContents) {
+        List<Pack> packs = new ArrayList<>();
+        double lightestUnit = classes.count == 0 ? 0 : classes.weights[classes.count - 1];
+
+        for (int c = 0; c < classes.count; c++) {
+            double unitWeight = classes.weights[c];
+            long remaining = classes.units[c];
+
+            if (unitWeight > maxParcelWeight) {
+                // Oversized items travel alone, one unit per parcel
+                Pack pack = new Pack(remaining);
+                pack.add(c, 1, unitWeight, trackContents);
+                pack.full = true;
+                packs.add(pack);
+                continue;
+            }
+
+            // First fit: top up parcels opened by heavier items
+            for (int p = 0; p < packs.size() && remaining > 0; p++) {
+                Pack pack = packs.get(p);
+                if (pack.full) {
+                    continue;
+                }
+                long fit = unitsThatFit(maxParcelWeight - pack.weight, unitWeight, Long.MAX_VALUE);
+                if (fit == 0) {
+                    continue;
+                }
+                long copies = Math.min(pack.copies, remaining / fit);
+                if (copies == 0) {
+                    // Only part of one copy's room is needed for what is left
+                    split(packs, p, 1);
+                    pack.add(c, remaining, unitWeight, trackContents);
+                    remaining = 0;
+                } else {
+                    split(packs, p, copies);
+                    pack.add(c, fit, unitWeight, trackContents);
+                    remaining -= copies * fit;
+                }
+            }
+
+            // Then open as many new parcels as the rest needs
+            long perParcel = unitsThatFit(maxParcelWeight, unitWeight, Long.MAX_VALUE);
+            long fullParcels = remaining / perParcel;
+            if (fullParcels > 0) {
+                Pack pack = new Pack(fullParcels);
+                pack.add(c, perParcel, unitWeight, trackContents);
+                packs.add(pack);
+            }
+            if (remaining % perParcel > 0) {
+                Pack pack = new Pack(1);
+                pack.add(c, remaining % perParcel, unitWeight, trackContents);
+                packs.add(pack);
+            }
+
+            for (Pack pack : packs) {
+                pack.full |= maxParcelWeight - pack.weight < lightestUnit;
+            }
+        }
+        return packs;
+    }
+
+    /**
+     * Leaves {@code copies} copies at the index and moves the rest to a new pack right after it.
+     */
+    private static void split(List<Pack> packs, int index, long copies) {
+        Pack pack = packs.get(index);
+        if (copies < pack.copies) {
+            packs.add(index + 1, pack.copy(pack.copies - copies));
+            pack.copies = copies;
+        }
+    }
+
+    private static long unitsThatFit(double capacity, double unitWeight, long wanted) {
+        if (unitWeight <= 0) {
+            return wanted;
+        }
+        // Small epsilon so rounding noise does not reject an exact fit
+        double fit = Math.floor((capacity + 1e-9) / unitWeight);
+        return fit >= wanted ? wanted : (long) Math.max(0, fit);
+    }
+
+    private static long weightCost(RateTable rates, int zone, double weightKg)
+            throws ShippingUnavailableException {
+        long cost = rates.weightCost(zone, weightKg);
+        if (cost < 0) {
+            throw new ShippingUnavailableException(zone, weightKg);
+        }
+        return cost;
+    }
+
+    private static long surcharge(RateTable rates, Shippable item) {
+        return item instanceof Product ? rates.surcharge(((Product) item).getSku()) : 0;
+    }
+
+    /**
+     * Distinct items sorted by unit weight, heaviest first, grouped into runs of equal weight
+     */
+    private static final class WeightClasses {
+        Shippable[] items;
+        long[] quantities;
+        int itemCount;
+        double[] weights;
+        long[] units;
+        int[] starts;
+        int count;
+
+        static WeightClasses of(List<ShipmentLine> shipmentLines) {
+            int size = shipmentLines.size();
+            // Stable insertion sort by descending unit weight; carts have few lines
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                double weight = shipmentLines.get(i).getItem().getWeight();
+                int at = i;
+                while (at > 0 && shipmentLines.get(order[at - 1]).getItem().getWeight() < weight) {
+                    order[at] = order[at - 1];
+                    at--;
+                }
+                order[at] = i;
+            }
+
+            WeightClasses classes = new WeightClasses();
+            classes.items = new Shippable[size];
+            classes.quantities = new long[size];
+            classes.weights = new double[size];
+            classes.units = new long[size];
+            classes.starts = new int[size];
+            for (int i = 0; i < size; i++) {
+                ShipmentLine line = shipmentLines.get(order[i]);
+                classes.add(line.getItem(), line.getQuantity());
+            }
+            return classes;
+        }
+
+        private void add(Shippable item, int quantity) {
+            double weight = item.getWeight();
+            if (count == 0 || weights[count - 1] != weight) {
+                weights[count] = weight;
+                starts[count] = itemCount;
+                count++;
+            }
+            units[count - 1] += quantity;
+            // The same item always has the same weight, so repeats fall in the current class
+            for (int i = starts[count - 1]; i < itemCount; i++) {
+                if (items[i].equals(item)) {
+                    quantities[i] += quantity;
+                    return;
+                }
+            }
+            items[itemCount] = item;
+            quantities[itemCount] = quantity;
+            itemCount++;
+        }
+    }
+
+    /**
+     * Identical parcels: their weight, how many there are and, when tracked, the units
+     * of each weight class one copy holds
+     */
+    private static final class Pack {
+        double weight;
+        long copies;
+        boolean full;
+        int[] classes;
+        long[] units;
+        int size;
+
+        Pack(long copies) {
+            this.copies = copies;
+        }
+
+        void add(int weightClass, long unitCount, double unitWeight, boolean trackContents) {
+            weight += unitWeight * unitCount;
+            if (!trackContents) {
+                return;
+            }
+            if (classes == null) {
+                classes = new int[2];
+                units = new long[2];
+            } else if (size == classes.length) {
+                classes = Arrays.copyOf(classes, size * 2);
+                units = Arrays.copyOf(units, size * 2);
+            }
+            classes[size] = weightClass;
+            units[size] = unitCount;
+            size++;
+        }
+
+        Pack copy(long copyCount) {
+            Pack copy = new Pack(copyCount);
+            copy.weight = weight;
+            copy.full = full;
+            if (classes != null) {
+                copy.classes = classes.clone();
+                copy.units = units.clone();
+            }
+            copy.size = size;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.shipping;
+
+/**
+ * Rate rule: extra shipping charge per unit of one SKU (minor units), in every zone
+ */
+public class ProductSurcharge {
+    private final long sku;
+    private final long perUnit;
+
+    public ProductSurcharge(long sku, long perUnit) {
+        if (perUnit < 0) {
+            throw new IllegalArgumentException("Surcharge cannot be negative");
+        }
+        this.sku = sku;
+        this.perUnit = perUnit;
+    }
+
+    public long getSku() {
+        return sku;
+    }
+
+    public long getPerUnit() {
+        return perUnit;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.shipping;
+
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ShipmentLine;
+import com.ecommerce.model.Shippable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable shipping rate table compiled from rules into primitive arrays
+ * A quote is a binary search over the zone's weight breakpoints plus an
+ * open-addressing lookup per SKU, so cost does not grow with the number of rules
+ * and nothing is allocated
+ * Every compiled table gets a new version, so cached quotes can tell they are stale
+ */
+public final class RateTable {
+    private static final long NO_SKU = Long.MIN_VALUE;
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    private final long version;
+
+    private final double[][] breakpoints;
+    private final long[][] baseFees;
+    private final long[][] ratesPerKg;
+    private final long[] surchargeSkus;
+    private final long[] surchargeAmounts;
+    private final int surchargeMask;
+
+    private RateTable(double[][] breakpoints, long[][] baseFees, long[][] ratesPerKg,
+                      long[] surchargeSkus, long[] surchargeAmounts) {
+        this.version = VERSION_SEQUENCE.incrementAndGet();
+        this.breakpoints = breakpoints;
+        this.baseFees = baseFees;
+        this.ratesPerKg = ratesPerKg;
+        this.surchargeSkus = surchargeSkus;
+        this.surchargeAmounts = surchargeAmounts;
+        this.surchargeMask = surchargeSkus.length - 1;
+    }
+
+    /**
+     * The original flat rate: 5 base fee plus 10 per kg, in a single zone 0.
+     */
+    public static RateTable standard() {
+        return compile(List.of(new WeightTier(0, 0.0, Money.of(5), Money.of(10))), List.of());
+    }
+
+    public static RateTable compile(Collection<WeightTier> tiers, Collection<ProductSurcharge> surcharges) {
+        int zoneCount = 0;
+        for (WeightTier tier : tiers) {
+            zoneCount = Math.max(zoneCount, tier.getZone() + 1);
+        }
+
+        List<List<WeightTier>> byZone = new ArrayList<>(zoneCount);
+        for (int zone = 0; zone < zoneCount; zone++) {
+            byZone.add(new ArrayList<>());
+        }
+        for (WeightTier tier : tiers) {
+            byZone.get(tier.getZone()).add(tier);
+        }
+
+        double[][] breakpoints = new double[zoneCount][];
+        long[][] baseFees = new long[zoneCount][];
+        long[][] ratesPerKg = new long[zoneCount][];
+        for (int zone = 0; zone < zoneCount; zone++) {
+            List<WeightTier> zoneTiers = byZone.get(zone);
+            zoneTiers.sort(Comparator.comparingDouble(WeightTier::getFromKg));
+            breakpoints[zone] = new double[zoneTiers.size()];
+            baseFees[zone] = new long[zoneTiers.size()];
+            ratesPerKg[zone] = new long[zoneTiers.size()];
+            for (int i = 0; i < zoneTiers.size(); i++) {
+                WeightTier tier = zoneTiers.get(i);
+                if (i > 0 && tier.getFromKg() == breakpoints[zone][i - 1]) {
+                    throw new IllegalArgumentException(
+                        String.format("Zone %d has two tiers starting at %.3fkg", zone, tier.getFromKg()));
+                }
+                breakpoints[zone][i] = tier.getFromKg();
+                baseFees[zone][i] = tier.getBaseFee();
+                ratesPerKg[zone][i] = tier.getRatePerKg();
+            }
+        }
+
+        // Power-of-two open-addressing table at most half full
+        int slots = Integer.highestOneBit(Math.max(1, surcharges.size()) * 2) * 2;
+        long[] skus = new long[slots];
+        long[] amounts = new long[slots];
+        Arrays.fill(skus, NO_SKU);
+        for (ProductSurcharge surcharge : surcharges) {
+            int slot = slotFor(skus, slots - 1, surcharge.getSku());
+            skus[slot] = surcharge.getSku();
+            amounts[slot] = surcharge.getPerUnit();
+        }
+
+        return new RateTable(breakpoints, baseFees, ratesPerKg, skus, amounts);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getZoneCount() {
+        return breakpoints.length;
+    }
+
+    /**
+     * @return weight-based cost in minor units, or -1 if the zone has no tier covering the weight
+     */
+    public long weightCost(int zone, double totalWeightKg) {
+        if (zone < 0 || zone >= breakpoints.length) {
+            return -1;
+        }
+        double[] zoneBreakpoints = breakpoints[zone];
+        int tier = Arrays.binarySearch(zoneBreakpoints, totalWeightKg);
+        if (tier < 0) {
+            // Insertion point minus one is the last tier starting below this weight
+            tier = -tier - 2;
+        }
+        if (tier < 0) {
+            return -1;
+        }
+        return Money.add(baseFees[zone][tier], Money.round(totalWeightKg * ratesPerKg[zone][tier]));
+    }
+
+    /**
+     * @return shipping cost in minor units for the lines shipped to the zone
+     * @throws ShippingUnavailableException if the zone has no tier covering the total weight
+     */
+    public long quote(List<ShipmentLine> shipmentLines, int zone) throws ShippingUnavailableException {
+        double totalWeight = 0.0;
+        long surcharges = 0;
+        for (int i = 0; i < shipmentLines.size(); i++) {
+            ShipmentLine line = shipmentLines.get(i);
+            totalWeight += line.getTotalWeight();
+            Shippable item = line.getItem();
+            if (item instanceof Product) {
+                surcharges = Money.add(surcharges,
+                    Money.times(surcharge(((Product) item).getSku()), line.getQuantity()));
+            }
+        }
+
+        long weightCost = weightCost(zone, totalWeight);
+        if (weightCost < 0) {
+            throw new ShippingUnavailableException(zone, totalWeight);
+        }
+        return Money.add(weightCost, surcharges);
+    }
+
+    /**
+     * @return per-unit surcharge for the SKU in minor units, 0 if it has none
+     */
+    public long surcharge(long sku) {
+        int slot = slotFor(surchargeSkus, surchargeMask, sku);
+        return surchargeSkus[slot] == sku ? surchargeAmounts[slot] : 0;
+    }
+
+    private static int slotFor(long[] skus, int mask, long sku) {
+        int slot = (int) (sku ^ (sku >>> 32)) * 0x9e3779b9 & mask;
+        while (skus[slot] != NO_SKU && skus[slot] != sku) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.shipping;
+
+import com.ecommerce.exception.ShippingUnavailableException;
+import com.ecommerce.model.ShipmentLine;
+import java.util.List;
+
+/**
+ * Quotes shipping from the currently published RateTable
+ * Tables are swapped with a single volatile write, so rates can be reloaded while
+ * checkouts are running; each quote reads one table from start to finish
+ */
+public class ShippingRateEngine {
+    private volatile RateTable table;
+
+    public ShippingRateEngine() {
+        this(RateTable.standard());
+    }
+
+    public ShippingRateEngine(RateTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @return the published table; quote several shipments from it to price them all at one version
+     */
+    public RateTable getTable() {
+        return table;
+    }
+
+    /**
+     * Publishes a new table; quotes already in progress finish on the old one.
+     */
+    public void reload(RateTable newTable) {
+        this.table = newTable;
+    }
+
+    /**
+     * @return shipping cost in minor units for the lines shipped to the zone
+     * @throws ShippingUnavailableException if the zone has no tier covering the total weight
+     */
+    public long quote(List<ShipmentLine> shipmentLines, int zone) throws ShippingUnavailableException {
+        return table.quote(shipmentLines, zone);
+    }
+}
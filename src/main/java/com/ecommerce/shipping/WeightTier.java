@@ -0,0 +1,38 @@
+package com.ecommerce.shipping;
+
+/**
+ * Rate rule: within a zone, shipments weighing at least {@code fromKg} cost
+ * {@code baseFee + weight * ratePerKg} (minor units), until the next tier starts
+ */
+public class WeightTier {
+    private final int zone;
+    private final double fromKg;
+    private final long baseFee;
+    private final long ratePerKg;
+
+    public WeightTier(int zone, double fromKg, long baseFee, long ratePerKg) {
+        if (zone < 0 || fromKg < 0 || baseFee < 0 || ratePerKg < 0) {
+            throw new IllegalArgumentException("Zone, weight and fees cannot be negative");
+        }
+        this.zone = zone;
+        this.fromKg = fromKg;
+        this.baseFee = baseFee;
+        this.ratePerKg = ratePerKg;
+    }
+
+    public int getZone() {
+        return zone;
+    }
+
+    public double getFromKg() {
+        return fromKg;
+    }
+
+    public long getBaseFee() {
+        return baseFee;
+    }
+
+    public long getRatePerKg() {
+        return ratePerKg;
+    }
+}
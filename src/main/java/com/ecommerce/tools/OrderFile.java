@@ -0,0 +1,143 @@
+package com.ecommerce.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Recorded order traffic as CSV rows of {@code customer,sku,quantity}
+ * Consecutive rows for the same customer form one order. Lines starting with '#'
+ * and a header row are skipped. Reading streams the file through memory-mapped
+ * windows and parses numbers straight from the bytes, so files of any size replay
+ * without per-row allocation.
+ */
+public final class OrderFile {
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Receives each parsed row in file order
+     */
+    public interface RowHandler {
+        void row(long customer, long sku, int quantity);
+    }
+
+    private OrderFile() {
+    }
+
+    /**
+     * @return number of rows parsed
+     */
+    public static long read(Path file, RowHandler handler) throws IOException {
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long lineNumber = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == size;
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        lineNumber++;
+                        rows += parseLine(window, lineStart, i, lineNumber, handler);
+                        lineStart = i + 1;
+                    }
+                }
+                if (lastWindow && lineStart < length) {
+                    lineNumber++;
+                    rows += parseLine(window, lineStart, (int) length, lineNumber, handler);
+                    lineStart = (int) length;
+                }
+                if (lineStart == 0 && !lastWindow) {
+                    throw new IOException("Line " + (lineNumber + 1) + " is longer than the mapping window");
+                }
+                // The partial line at the end of the window is re-read at the start of the next one
+                position += lineStart;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes a synthetic order file: {@code orders} orders of 1 to 3 lines over
+     * {@code customers} customers and SKUs 1 to {@code products}.
+     */
+    public static void generate(Path file, int orders, int customers, int products, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("customer,sku,quantity\n");
+            long previousCustomer = -1;
+            for (int i = 0; i < orders; i++) {
+                long customer = 1 + random.nextInt(customers);
+                if (customer == previousCustomer) {
+                    // Keep adjacent orders apart so they are not merged into one
+                    customer = customer % customers + 1;
+                }
+                previousCustomer = customer;
+
+                int lines = 1 + random.nextInt(3);
+                long firstSku = 1 + random.nextInt(products);
+                for (int line = 0; line < lines && line < products; line++) {
+                    long sku = (firstSku + line - 1) % products + 1;
+                    out.write(customer + "," + sku + "," + (1 + random.nextInt(3)) + "\n");
+                }
+            }
+        }
+    }
+
+    private static int parseLine(MappedByteBuffer buffer, int start, int end, long lineNumber,
+                                 RowHandler handler) throws IOException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (start == end || buffer.get(start) == '#' || !isDigit(buffer.get(start))) {
+            // Blank line, comment or header
+            return 0;
+        }
+
+        long customer = 0;
+        long sku = 0;
+        long quantity = 0;
+        int field = 0;
+        long value = 0;
+        boolean digits = false;
+        for (int i = start; i <= end; i++) {
+            byte b = i < end ? buffer.get(i) : (byte) ',';
+            if (isDigit(b)) {
+                value = value * 10 + (b - '0');
+                digits = true;
+            } else if (b == ',' && digits && field < 3) {
+                if (field == 0) {
+                    customer = value;
+                } else if (field == 1) {
+                    sku = value;
+                } else {
+                    quantity = value;
+                }
+                field++;
+                value = 0;
+                digits = false;
+            } else if (b != ' ') {
+                throw new IOException("Malformed order row at line " + lineNumber);
+            }
+        }
+        if (field != 3 || quantity > Integer.MAX_VALUE) {
+            throw new IOException("Expected customer,sku,quantity at line " + lineNumber);
+        }
+        handler.row(customer, sku, (int) quantity);
+        return 1;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
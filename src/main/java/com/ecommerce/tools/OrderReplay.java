@@ -0,0 +1,362 @@
+package com.ecommerce.tools;
+
+import com.ecommerce.exception.CheckoutException;
+import com.ecommerce.inventory.ReservationManager;
+import com.ecommerce.metrics.LatencyHistogram;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.DigitalProduct;
+import com.ecommerce.model.ElectronicProduct;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.PerishableProduct;
+import com.ecommerce.model.Product;
+import com.ecommerce.output.OutputSink;
+import com.ecommerce.service.CheckoutService;
+import com.ecommerce.service.ShippingService;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded order file through CheckoutService for offline capacity testing
+ * The file is streamed by {@link OrderFile} on the calling thread, which paces orders
+ * to the target rate and hands them to worker threads. Latency is measured from each
+ * order's scheduled start, so a backlog shows up in the percentiles instead of being hidden.
+ *
+ * Usage: OrderReplay FILE [--threads N] [--rate ORDERS_PER_SEC] [--products N]
+ *        [--stock UNITS] [--balance AMOUNT] [--generate ORDERS] [--customers N]
+ */
+public final class OrderReplay {
+    private static final String CART_REJECTED = "CartRejected";
+    private static final String UNKNOWN_SKU = "UnknownSku";
+
+    private final CheckoutService checkoutService;
+    private final Product[] products;
+    private final long customerBalance;
+    private final Map<Long, Customer> customers;
+    private final LatencyHistogram latency;
+    private final LongAdder succeeded;
+    private final Map<String, LongAdder> rejections;
+
+    /**
+     * @param products the product for file SKU {@code i} at index {@code i - 1}
+     */
+    public OrderReplay(CheckoutService checkoutService, Product[] products, long customerBalance) {
+        this.checkoutService = checkoutService;
+        this.products = products;
+        this.customerBalance = customerBalance;
+        this.customers = new ConcurrentHashMap<>();
+        this.latency = new LatencyHistogram();
+        this.succeeded = new LongAdder();
+        this.rejections = new ConcurrentHashMap<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: OrderReplay FILE [--threads N] [--rate ORDERS_PER_SEC] [--products N]");
+            System.err.println("       [--stock UNITS] [--balance AMOUNT] [--generate ORDERS] [--customers N]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        double rate = 0;
+        int productCount = 1000;
+        int stock = 1000;
+        long balance = Money.of(1000);
+        int generate = 0;
+        int customerCount = 10_000;
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--products":
+                    productCount = Integer.parseInt(value);
+                    break;
+                case "--stock":
+                    stock = Integer.parseInt(value);
+                    break;
+                case "--balance":
+                    balance = Money.of(Long.parseLong(value));
+                    break;
+                case "--generate":
+                    generate = Integer.parseInt(value);
+                    break;
+                case "--customers":
+                    customerCount = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (generate > 0) {
+            OrderFile.generate(file, generate, customerCount, productCount, 42);
+            System.out.printf("Generated %d orders into %s%n", generate, file);
+        }
+
+        OutputSink discard = document -> { };
+        CheckoutService checkoutService = new CheckoutService(new ShippingService(discard),
+            new ReservationManager(), discard);
+        OrderReplay replay = new OrderReplay(checkoutService, seedProducts(productCount, stock), balance);
+        replay.run(file, threads, rate).print(System.out);
+    }
+
+    /**
+     * Creates a mix of digital, shippable and perishable products for file SKUs 1 to {@code count}.
+     */
+    public static Product[] seedProducts(int count, int stock) {
+        Product[] products = new Product[count];
+        LocalDate expiry = LocalDate.now().plusDays(30);
+        for (int i = 0; i < count; i++) {
+            String name = "Product " + (i + 1);
+            long price = Money.of(1 + i % 50);
+            switch (i % 3) {
+                case 0:
+                    products[i] = new DigitalProduct(name, price, stock);
+                    break;
+                case 1:
+                    products[i] = new ElectronicProduct(name, price, stock, 0.5 + i % 10);
+                    break;
+                default:
+                    products[i] = new PerishableProduct(name, price, stock, expiry, 0.1 + (i % 5) / 10.0);
+                    break;
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Replays the file with {@code threads} workers at up to {@code rate} orders per
+     * second (0 for as fast as possible) and returns once every order has finished.
+     */
+    public Report run(Path file, int threads, double rate) throws IOException, InterruptedException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        BlockingQueue<ReplayOrder> queue = new ArrayBlockingQueue<>(threads * 256);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> work(queue), "order-replay-" + i);
+            workers[i].start();
+        }
+
+        long start = System.nanoTime();
+        OrderDispatcher dispatcher = new OrderDispatcher(queue, start, rate);
+        try {
+            OrderFile.read(file, dispatcher);
+            dispatcher.flush();
+        } finally {
+            for (int i = 0; i < threads; i++) {
+                queue.put(ReplayOrder.END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        return new Report(dispatcher.dispatched, System.nanoTime() - start, threads,
+                          succeeded.sum(), latency.snapshot(), rejectionCounts());
+    }
+
+    private void work(BlockingQueue<ReplayOrder> queue) {
+        try {
+            for (ReplayOrder order = queue.take(); order != ReplayOrder.END; order = queue.take()) {
+                String rejection = checkout(order);
+                latency.record(System.nanoTime() - order.scheduledNanos);
+                if (rejection == null) {
+                    succeeded.increment();
+                } else {
+                    rejections.computeIfAbsent(rejection, type -> new LongAdder()).increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return null on success, otherwise the rejection type
+     */
+    private String checkout(ReplayOrder order) {
+        Cart cart = new Cart();
+        for (int i = 0; i < order.lineCount; i++) {
+            long sku = order.skus[i];
+            if (sku < 1 || sku > products.length) {
+                return UNKNOWN_SKU;
+            }
+            Product product = products[(int) (sku - 1)];
+            try {
+                if (cart.contains(product)) {
+                    cart.updateQuantity(product, cart.getItem(product).getQuantity() + order.quantities[i]);
+                } else {
+                    cart.addItem(product, order.quantities[i]);
+                }
+            } catch (IllegalArgumentException e) {
+                return CART_REJECTED;
+            }
+        }
+
+        Customer customer = customers.computeIfAbsent(order.customer,
+            id -> new Customer("Customer " + id, customerBalance));
+        try {
+            checkoutService.checkout(customer, cart);
+            return null;
+        } catch (CheckoutException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    private Map<String, Long> rejectionCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : rejections.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Groups consecutive rows of one customer into an order and paces it onto the queue
+     */
+    private static final class OrderDispatcher implements OrderFile.RowHandler {
+        private final BlockingQueue<ReplayOrder> queue;
+        private final long start;
+        private final double intervalNanos;
+        private ReplayOrder current;
+        private long dispatched;
+
+        OrderDispatcher(BlockingQueue<ReplayOrder> queue, long start, double rate) {
+            this.queue = queue;
+            this.start = start;
+            this.intervalNanos = rate > 0 ? 1e9 / rate : 0;
+        }
+
+        @Override
+        public void row(long customer, long sku, int quantity) {
+            if (current != null && current.customer != customer) {
+                flush();
+            }
+            if (current == null) {
+                current = new ReplayOrder(customer);
+            }
+            current.add(sku, quantity);
+        }
+
+        void flush() {
+            if (current == null) {
+                return;
+            }
+            long scheduled = start + (long) (dispatched * intervalNanos);
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            current.scheduledNanos = intervalNanos > 0 ? scheduled : System.nanoTime();
+            try {
+                queue.put(current);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while dispatching orders", e);
+            }
+            dispatched++;
+            current = null;
+        }
+    }
+
+    /**
+     * One order read from the file
+     */
+    private static final class ReplayOrder {
+        static final ReplayOrder END = new ReplayOrder(-1);
+
+        final long customer;
+        long[] skus = new long[4];
+        int[] quantities = new int[4];
+        int lineCount;
+        long scheduledNanos;
+
+        ReplayOrder(long customer) {
+            this.customer = customer;
+        }
+
+        void add(long sku, int quantity) {
+            if (lineCount == skus.length) {
+                skus = Arrays.copyOf(skus, lineCount * 2);
+                quantities = Arrays.copyOf(quantities, lineCount * 2);
+            }
+            skus[lineCount] = sku;
+            quantities[lineCount] = quantity;
+            lineCount++;
+        }
+    }
+
+    /**
+     * Outcome of a replay run
+     */
+    public static class Report {
+        private final long orders;
+        private final long elapsedNanos;
+        private final int threads;
+        private final long succeeded;
+        private final LatencyHistogram.Snapshot latency;
+        private final Map<String, Long> rejections;
+
+        Report(long orders, long elapsedNanos, int threads, long succeeded,
+               LatencyHistogram.Snapshot latency, Map<String, Long> rejections) {
+            this.orders = orders;
+            this.elapsedNanos = elapsedNanos;
+            this.threads = threads;
+            this.succeeded = succeeded;
+            this.latency = latency;
+            this.rejections = rejections;
+        }
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : orders * 1e9 / elapsedNanos;
+        }
+
+        public long getSucceeded() {
+            return succeeded;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return rejected orders keyed by CheckoutException simple name, plus
+         *         CartRejected and UnknownSku for orders that never reached checkout
+         */
+        public Map<String, Long> getRejections() {
+            return rejections;
+        }
+
+        public void print(PrintStream out) {
+            out.printf("Replayed %d orders in %.2fs with %d threads (%.0f orders/s)%n",
+                       orders, elapsedNanos / 1e9, threads, getThroughput());
+            out.printf("Latency p50 %.1fus p99 %.1fus max %.1fus%n",
+                       latency.getP50() / 1e3, latency.getP99() / 1e3, latency.getMax() / 1e3);
+            out.printf("Succeeded %d, rejected %d %s%n", succeeded, orders - succeeded, rejections);
+        }
+    }
+}
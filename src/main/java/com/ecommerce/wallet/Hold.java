@@ -0,0 +1,34 @@
+package com.ecommerce.wallet;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Funds set aside for a pending checkout, later captured or released exactly once
+ */
+public class Hold {
+    private final long id;
+    private final long amount;
+    private final AtomicBoolean settled;
+
+    Hold(long id, long amount) {
+        this.id = id;
+        this.amount = amount;
+        this.settled = new AtomicBoolean();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public boolean isSettled() {
+        return settled.get();
+    }
+
+    boolean settle() {
+        return settled.compareAndSet(false, true);
+    }
+}
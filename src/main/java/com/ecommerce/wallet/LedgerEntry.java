@@ -0,0 +1,67 @@
+package com.ecommerce.wallet;
+
+/**
+ * One immutable wallet movement, with amounts in minor units
+ */
+public class LedgerEntry {
+    public enum Type {
+        CREDIT,
+        DEBIT,
+        HOLD,
+        CAPTURE,
+        RELEASE
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final long amount;
+    private final long availableAfter;
+    private final long holdId;
+    private final long timestampMillis;
+
+    public LedgerEntry(long sequence, Type type, long amount, long availableAfter,
+                       long holdId, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.amount = amount;
+        this.availableAfter = availableAfter;
+        this.holdId = holdId;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * @return available balance produced by this movement
+     */
+    public long getAvailableAfter() {
+        return availableAfter;
+    }
+
+    /**
+     * @return the hold this entry belongs to, or 0 for plain credits and debits
+     */
+    public long getHoldId() {
+        return holdId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s %d (available %d%s)", sequence, type, amount, availableAfter,
+                             holdId == 0 ? "" : ", hold " + holdId);
+    }
+}
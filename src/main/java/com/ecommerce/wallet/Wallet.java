@@ -0,0 +1,138 @@
+package com.ecommerce.wallet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Customer funds in minor units with lock-free compare-and-deduct
+ * Holds move money out of the available balance until they are captured (paid)
+ * or released (returned). The available and held amounts and the ledger sequence
+ * change together in one CAS, so every ledger entry records exactly the balance its
+ * movement produced, in the order the movements happened
+ */
+public class Wallet {
+    private static final AtomicLong HOLD_SEQUENCE = new AtomicLong();
+
+    private final AtomicReference<Balance> balance;
+    private final WalletLedger ledger;
+
+    public Wallet(long openingBalance) {
+        if (openingBalance < 0) {
+            throw new IllegalArgumentException("Opening balance cannot be negative");
+        }
+        this.balance = new AtomicReference<>(new Balance(0, 0, 0));
+        this.ledger = new WalletLedger();
+        if (openingBalance > 0) {
+            move(LedgerEntry.Type.CREDIT, openingBalance, openingBalance, 0, 0);
+        }
+    }
+
+    /**
+     * @return balance that can be spent, excluding funds on hold
+     */
+    public long getAvailable() {
+        return balance.get().available;
+    }
+
+    public long getHeld() {
+        return balance.get().held;
+    }
+
+    public WalletLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * @throws ArithmeticException if the balance would overflow
+     */
+    public void credit(long amount) {
+        requireNonNegative(amount);
+        move(LedgerEntry.Type.CREDIT, amount, amount, 0, 0);
+    }
+
+    /**
+     * Deducts the amount only if the available balance covers it.
+     *
+     * @return true if the amount was deducted
+     */
+    public boolean tryDebit(long amount) {
+        requireNonNegative(amount);
+        return move(LedgerEntry.Type.DEBIT, amount, -amount, 0, 0);
+    }
+
+    /**
+     * Sets the amount aside for a pending checkout.
+     *
+     * @return the hold, or null if the available balance does not cover it
+     */
+    public Hold placeHold(long amount) {
+        requireNonNegative(amount);
+        Hold hold = new Hold(HOLD_SEQUENCE.incrementAndGet(), amount);
+        return move(LedgerEntry.Type.HOLD, amount, -amount, amount, hold.getId()) ? hold : null;
+    }
+
+    /**
+     * Turns the hold into a payment. Does nothing if it was already settled.
+     */
+    public boolean capture(Hold hold) {
+        if (!hold.settle()) {
+            return false;
+        }
+        move(LedgerEntry.Type.CAPTURE, hold.getAmount(), 0, -hold.getAmount(), hold.getId());
+        return true;
+    }
+
+    /**
+     * Returns held funds to the available balance. Does nothing if already settled.
+     */
+    public boolean release(Hold hold) {
+        if (!hold.settle()) {
+            return false;
+        }
+        move(LedgerEntry.Type.RELEASE, hold.getAmount(), hold.getAmount(), -hold.getAmount(), hold.getId());
+        return true;
+    }
+
+    /**
+     * Applies the change to the available and held amounts and records it in the ledger.
+     *
+     * @return false, changing nothing, if the available balance would go negative
+     */
+    private boolean move(LedgerEntry.Type type, long amount, long availableDelta, long heldDelta, long holdId) {
+        Balance current;
+        Balance next;
+        do {
+            current = balance.get();
+            long available = Math.addExact(current.available, availableDelta);
+            if (available < 0) {
+                return false;
+            }
+            next = new Balance(available, current.held + heldDelta, current.sequence + 1);
+        } while (!balance.compareAndSet(current, next));
+
+        ledger.record(new LedgerEntry(next.sequence, type, amount, next.available,
+                                      holdId, System.currentTimeMillis()));
+        return true;
+    }
+
+    private static void requireNonNegative(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+    }
+
+    /**
+     * Available and held amounts after the movement with the given ledger sequence
+     */
+    private static final class Balance {
+        final long available;
+        final long held;
+        final long sequence;
+
+        Balance(long available, long held, long sequence) {
+            this.available = available;
+            this.held = held;
+            this.sequence = sequence;
+        }
+    }
+}
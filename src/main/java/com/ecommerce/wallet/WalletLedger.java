@@ -0,0 +1,88 @@
+package com.ecommerce.wallet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only record of every movement of one wallet, in the order they changed the balance
+ * The wallet assigns each entry its sequence number in the same CAS that changes the
+ * balance, and the entry lands at that position in fixed-size chunks. Chunks are never
+ * moved or dropped; when the directory of chunks fills up, a larger copy with fresh
+ * chunks is swapped in with a CAS, so recording never locks and never loses history
+ */
+public class WalletLedger {
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicReference<List<AtomicReferenceArray<LedgerEntry>>> chunks;
+    private final AtomicLong lastSequence;
+
+    public WalletLedger() {
+        this.chunks = new AtomicReference<>(List.of(new AtomicReferenceArray<>(CHUNK_SIZE)));
+        this.lastSequence = new AtomicLong();
+    }
+
+    void record(LedgerEntry entry) {
+        long index = entry.getSequence() - 1;
+        chunkFor(index).set((int) (index & CHUNK_MASK), entry);
+        lastSequence.accumulateAndGet(entry.getSequence(), Math::max);
+    }
+
+    /**
+     * Entries whose balance change is done but which are still being recorded are left out.
+     *
+     * @return copy of every entry, oldest first
+     */
+    public List<LedgerEntry> getEntries() {
+        return getEntriesAfter(0);
+    }
+
+    /**
+     * @return copy of the entries with a sequence above {@code sequence}, oldest first
+     */
+    public List<LedgerEntry> getEntriesAfter(long sequence) {
+        long last = lastSequence.get();
+        List<AtomicReferenceArray<LedgerEntry>> current = chunks.get();
+        List<LedgerEntry> copy = new ArrayList<>((int) Math.max(0, last - sequence));
+        for (long index = Math.max(0, sequence); index < last; index++) {
+            LedgerEntry entry = current.get((int) (index >>> CHUNK_SHIFT)).get((int) (index & CHUNK_MASK));
+            if (entry != null) {
+                copy.add(entry);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @return number of entries recorded so far
+     */
+    public int size() {
+        return getEntries().size();
+    }
+
+    /**
+     * @return sequence of the newest recorded entry, which is also the number of entries ever recorded
+     */
+    public long getLastSequence() {
+        return lastSequence.get();
+    }
+
+    private AtomicReferenceArray<LedgerEntry> chunkFor(long index) {
+        int chunk = Math.toIntExact(index >>> CHUNK_SHIFT);
+        List<AtomicReferenceArray<LedgerEntry>> current = chunks.get();
+        while (chunk >= current.size()) {
+            // Published directories never change, so copying one cannot lose a chunk
+            List<AtomicReferenceArray<LedgerEntry>> grown = new ArrayList<>(current);
+            while (grown.size() <= chunk || grown.size() < current.size() * 2) {
+                grown.add(new AtomicReferenceArray<>(CHUNK_SIZE));
+            }
+            chunks.compareAndSet(current, List.copyOf(grown));
+            current = chunks.get();
+        }
+        return current.get(chunk);
+    }
+}